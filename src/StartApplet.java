@@ -24,10 +24,10 @@ public class StartApplet extends JApplet
         requestFocusInWindow();
         
         //use cursor from Shared class
-        setCursor(Shared.CURSOR);
+        setCursor(Shared.createCursor());
         
         //set default values in case no parameters have been passed
-        int ups = Shared.DEFAULT_UPS;
+        int ups = Shared.UPS;
         int fps = Shared.DEFAULT_FPS;
         
         try
@@ -15,7 +15,7 @@ public class StartDesktop extends JPanel
     
     public StartDesktop()
     {
-        setCursor(Shared.CURSOR);
+        setCursor(Shared.createCursor());
         setPreferredSize(new Dimension(Shared.INITIAL_WIDTH, Shared.INITIAL_HEIGHT));
         setFocusable(true);
         requestFocus();
@@ -23,7 +23,7 @@ public class StartDesktop extends JPanel
         try
         {
             //create a new instance of main with the specified ups/fps
-            main = new Main(Shared.DEFAULT_UPS, Shared.DEFAULT_FPS);
+            main = new Main(Shared.UPS, Shared.DEFAULT_FPS);
             
             //add JPanel instance to Main instance because some features like "full-screen" need this
             main.setPanel(this);
@@ -48,7 +48,7 @@ public class StartDesktop extends JPanel
             JFrame window = new JFrame(Shared.GAME_NAME);
 
             //use cursor from Shared class
-            window.setCursor(Shared.CURSOR);
+            window.setCursor(Shared.createCursor());
             
             //add component to window
             window.add(new StartDesktop());
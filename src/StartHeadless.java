@@ -0,0 +1,320 @@
+import com.gamesbykevin.jezzball.balls.BallBenchmark;
+import com.gamesbykevin.jezzball.balls.BallManager;
+import com.gamesbykevin.jezzball.board.BoardBenchmark;
+import com.gamesbykevin.jezzball.manager.Viewport;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+import com.gamesbykevin.jezzball.shared.Shared;
+import com.gamesbykevin.jezzball.simulation.AllocationCounter;
+import com.gamesbykevin.jezzball.simulation.Autoplay;
+import com.gamesbykevin.jezzball.simulation.Simulation;
+import com.gamesbykevin.jezzball.simulation.TimeWarp;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This file will play the game without a window as fast as possible and report the speed.
+ * Each level is played by scripted input, the same seed always plays the same game.
+ * Running out of lives doesn't end the level, each level is played until the goal or the most updates are reached.
+ * The time warp (Normal, Fast, Faster or Maximum) limits the updates to that many times real time, the default is Maximum.
+ *
+ * With --alloc-gate the bytes allocated by the updates are counted, after the first updates of each level have created what the level needs.
+ * The exit code is 1 if the updates allocated more than the limit per update on average, so a build can fail when an update starts allocating.
+ *
+ * With --bench=name a benchmark is run instead of the game, the seed is the only other argument used:
+ * collisions - the time to bounce the balls off each other from 1,000 to 20,000 balls
+ * boundaries - the store of the board boundaries against a List of Rectangle with 10,000 boundaries
+ * occupancy - the grid of cells against the rectangles to track the captured area on 2048 and 8192 arenas
+ * sweep - the updates per second of the whole game from the default arena to MAX_ARENA_SIZE and from 10 to 10,000 balls
+ *
+ * java -Djava.awt.headless=true StartHeadless [levels] [seed] [max updates per level] [time warp] [--alloc-gate[=bytes per update]] [--bench=name]
+ *
+ * The arena size and number of balls are set the same way as the desktop game (see Shared).
+ * @author GOD
+ */
+public class StartHeadless
+{
+    //the number of levels to play if not set
+    private static final int DEFAULT_LEVELS = 10;
+    
+    //the most updates to play in each level if not set, the level is stopped after this many
+    private static final long DEFAULT_MAX_TICKS = 100000;
+    
+    //the option that counts the bytes allocated by the updates
+    private static final String ALLOC_GATE = "--alloc-gate";
+    
+    //the most bytes allocated per update on average if the limit isn't set
+    private static final long DEFAULT_ALLOC_LIMIT = 16;
+    
+    //the updates at the start of each level that aren't counted, the tables for the new balls are created on the first update
+    private static final long ALLOC_WARMUP = 100;
+    
+    //the option that runs a benchmark instead of the game
+    private static final String BENCH = "--bench=";
+    
+    //the arena sizes and number of balls in the sweep
+    private static final int[][] SWEEP_ARENAS = {{500, 400}, {2048, 2048}, {Shared.MAX_ARENA_SIZE, Shared.MAX_ARENA_SIZE}};
+    private static final int[] SWEEP_BALLS = {10, 1000, 10000};
+    
+    //the updates in the sweep that aren't measured and the updates that are
+    private static final int SWEEP_WARMUP = 200;
+    private static final int SWEEP_UPDATES = 2000;
+    
+    //the most of the arena the balls can cover in the sweep, the goal can't be reached with more
+    private static final double SWEEP_COVERAGE = 0.5;
+    
+    public static void main(String[] options)
+    {
+        try
+        {
+            //the allocation limit, -1 if the allocations aren't counted
+            long allocLimit = -1;
+            
+            //the benchmark to run, null to play the game
+            String bench = null;
+            
+            final List<String> list = new ArrayList<>();
+            
+            for (String option : options)
+            {
+                if (option.equals(ALLOC_GATE))
+                {
+                    allocLimit = DEFAULT_ALLOC_LIMIT;
+                }
+                else if (option.startsWith(ALLOC_GATE + "="))
+                {
+                    allocLimit = Long.parseLong(option.substring(ALLOC_GATE.length() + 1));
+                }
+                else if (option.startsWith(BENCH))
+                {
+                    bench = option.substring(BENCH.length());
+                }
+                else
+                {
+                    list.add(option);
+                }
+            }
+            
+            final String[] args = list.toArray(new String[list.size()]);
+            
+            final int levels = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LEVELS;
+            final long seed = (args.length > 1) ? Long.parseLong(args[1]) : ((Shared.SEED != null) ? Shared.SEED : SeededRandom.createSeed());
+            final long maxTicks = (args.length > 2) ? Long.parseLong(args[2]) : DEFAULT_MAX_TICKS;
+            final TimeWarp warp = (args.length > 3) ? TimeWarp.valueOf(args[3]) : TimeWarp.Maximum;
+            
+            if (levels < 1 || maxTicks < 1)
+                throw new IllegalArgumentException("The levels and max updates have to be at least 1, levels = " + levels + ", max updates = " + maxTicks);
+            
+            if (bench != null)
+            {
+                bench(bench, seed);
+                return;
+            }
+            
+            //counts the bytes allocated by the updates, only the updates on this thread are counted
+            final AllocationCounter counter = (allocLimit >= 0) ? new AllocationCounter() : null;
+            
+            long countedTicks = 0;
+            
+            //the same arena and capture speed as the desktop game
+            final Rectangle arena = new Rectangle(Shared.VIEW.x, Shared.VIEW.y, Shared.ARENA_WIDTH, Shared.ARENA_HEIGHT);
+            final double captureSpeed = Capture.CaptureSpeed.Medium.getValue() / new Viewport(Shared.VIEW, arena).getScale();
+            
+            final Simulation simulation = new Simulation(arena, seed, Shared.BOARD_CELL_SIZE);
+            final Autoplay autoplay = new Autoplay(~seed);
+            
+            System.out.println(Shared.GAME_NAME + " headless, arena " + arena.width + "x" + arena.height + ", seed " + seed + ", time warp " + warp.getDesc());
+            
+            //each update covers 1 update at Shared.DEFAULT_UPS
+            final long nanoSecondsPerUpdate = warp.getNanoSecondsPerUpdate(Shared.DEFAULT_UPS);
+            
+            long totalTicks = 0;
+            long totalTime = 0;
+            
+            for (int level = 1; level <= levels; level++)
+            {
+                simulation.reset(level, 0, 0, 0, captureSpeed);
+                autoplay.reset(level);
+                
+                final long start = System.nanoTime();
+                
+                //the time the next update is due
+                long due = start;
+                
+                //play until the goal is reached or the time is up
+                while (!simulation.getBoard().hasGoal() && simulation.getTicks() < maxTicks)
+                {
+                    //the level has everything it needs, start counting
+                    if (counter != null && simulation.getTicks() == ALLOC_WARMUP)
+                        counter.start();
+                    
+                    simulation.step(autoplay.next(simulation), 1.0);
+                    
+                    //wait until the next update is due
+                    if (nanoSecondsPerUpdate > 0)
+                    {
+                        due += nanoSecondsPerUpdate;
+                        
+                        final long wait = due - System.nanoTime();
+                        
+                        if (wait > 0)
+                            LockSupport.parkNanos(wait);
+                    }
+                }
+                
+                final long time = System.nanoTime() - start;
+                
+                if (counter != null && simulation.getTicks() > ALLOC_WARMUP)
+                {
+                    counter.stop();
+                    countedTicks += simulation.getTicks() - ALLOC_WARMUP;
+                }
+                
+                final String result = simulation.getBoard().hasGoal() ? "complete" : "stopped";
+                
+                //the lives can go below 0 since the level keeps going
+                final int livesLost = Capture.START_LIVES[0] - simulation.getCapture().getLives();
+                
+                System.out.printf("level %d: %d balls, %d updates, %.1f%% captured, %d lives lost, %s, %.0f updates/sec%n",
+                    level, simulation.getBalls().getCount(), simulation.getTicks(), simulation.getBoard().getProgress() * 100, livesLost, result, simulation.getTicks() / (time / 1e9));
+                
+                totalTicks += simulation.getTicks();
+                totalTime += time;
+            }
+            
+            System.out.printf("total: %d updates in %.3f sec, %.0f updates/sec%n", totalTicks, totalTime / 1e9, totalTicks / (totalTime / 1e9));
+            
+            simulation.dispose();
+            
+            if (counter != null)
+            {
+                final double perTick = (countedTicks > 0) ? (double)counter.getTotal() / countedTicks : 0;
+                
+                System.out.printf("allocated: %d bytes in %d updates, %.2f bytes/update, limit %d%n", counter.getTotal(), countedTicks, perTick, allocLimit);
+                
+                if (perTick > allocLimit)
+                {
+                    System.out.println("allocation gate failed");
+                    System.exit(1);
+                }
+            }
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            
+            //a crash fails the run, including the allocation gate
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Run a benchmark and print the results
+     * @param name The name of the benchmark
+     * @param seed The seed for the layouts
+     * @throws Exception 
+     */
+    private static void bench(final String name, final long seed) throws Exception
+    {
+        System.out.println(Shared.GAME_NAME + " benchmark " + name + ", seed " + seed);
+        
+        switch (name)
+        {
+            case "collisions":
+                BallBenchmark.collisions(seed);
+                break;
+                
+            case "boundaries":
+                BoardBenchmark.boundaries(seed);
+                break;
+                
+            case "occupancy":
+                BoardBenchmark.occupancy(seed);
+                break;
+                
+            case "sweep":
+                sweep(seed);
+                break;
+                
+            default:
+                throw new IllegalArgumentException("There is no benchmark named " + name);
+        }
+    }
+    
+    /**
+     * Play the game on each arena size with each number of balls and print the updates per second.
+     * The worst update is printed as well since every update has to fit in 1 tick at Shared.DEFAULT_UPS to meet the target in Shared.
+     * @param seed The seed for the level layouts
+     * @throws Exception 
+     */
+    private static void sweep(final long seed) throws Exception
+    {
+        final int sizeIndex = BallManager.BallSize.Small.ordinal();
+        final int size = BallManager.BallSize.Small.getValue();
+        
+        //the time of 1 tick at the default updates per second
+        final double tick = 1000.0 / Shared.DEFAULT_UPS;
+        
+        System.out.printf("sweep: %dpx balls, %d updates each after %d not measured, target %d ups (%.1f ms/update)%n", size, SWEEP_UPDATES, SWEEP_WARMUP, Shared.DEFAULT_UPS, tick);
+        
+        for (int[] dimensions : SWEEP_ARENAS)
+        {
+            final Rectangle arena = new Rectangle(Shared.VIEW.x, Shared.VIEW.y, dimensions[0], dimensions[1]);
+            final double captureSpeed = Capture.CaptureSpeed.Medium.getValue() / new Viewport(Shared.VIEW, arena).getScale();
+            
+            for (int balls : SWEEP_BALLS)
+            {
+                if ((double)balls * size * size > (double)arena.width * arena.height * SWEEP_COVERAGE)
+                {
+                    System.out.printf("sweep: arena %dx%d, %d balls, skipped, the balls would cover more than half the arena%n", arena.width, arena.height, balls);
+                    continue;
+                }
+                
+                final Simulation simulation = new Simulation(arena, seed, Shared.BOARD_CELL_SIZE);
+                simulation.setBallCount(balls);
+                
+                final Autoplay autoplay = new Autoplay(~seed);
+                
+                int level = 1;
+                
+                simulation.reset(level, sizeIndex, 0, 0, captureSpeed);
+                autoplay.reset(level);
+                
+                long time = 0, worst = 0;
+                
+                for (int update = 0; update < SWEEP_WARMUP + SWEEP_UPDATES; update++)
+                {
+                    //keep playing once a level is complete, the ball count stays the same
+                    if (simulation.getBoard().hasGoal())
+                    {
+                        level++;
+                        simulation.reset(level, sizeIndex, 0, 0, captureSpeed);
+                        autoplay.reset(level);
+                    }
+                    
+                    final long start = System.nanoTime();
+                    
+                    simulation.step(autoplay.next(simulation), 1.0);
+                    
+                    final long elapsed = System.nanoTime() - start;
+                    
+                    if (update >= SWEEP_WARMUP)
+                    {
+                        time += elapsed;
+                        worst = Math.max(worst, elapsed);
+                    }
+                }
+                
+                simulation.dispose();
+                
+                final double average = time / 1e6 / SWEEP_UPDATES;
+                
+                System.out.printf("sweep: arena %dx%d, %d balls, %.0f updates/sec, %.3f ms/update, worst %.3f ms, %s%n",
+                    arena.width, arena.height, balls, SWEEP_UPDATES / (time / 1e9), average, worst / 1e6, (worst / 1e6 <= tick) ? "meets the target" : ((average <= tick) ? "meets the target on average" : "misses the target"));
+            }
+        }
+    }
+}
\ No newline at end of file
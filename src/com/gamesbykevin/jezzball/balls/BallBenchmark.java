@@ -0,0 +1,116 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+
+import java.awt.Rectangle;
+
+/**
+ * Measures how the time to bounce the balls off each other grows with the number of balls.
+ * The arena grows with the number of balls so they always cover the same part of it,
+ * if the time grows the same as the number of balls the time per ball stays the same.
+ * @author GOD
+ */
+public final class BallBenchmark
+{
+    //the number of balls to measure
+    private static final int[] COUNTS = {1000, 2000, 5000, 10000, 20000};
+    
+    //the part of the arena covered by the balls
+    private static final double COVERAGE = 0.025;
+    
+    //the updates that aren't measured, so the balls spread out and the code is compiled first
+    private static final int WARMUP = 200;
+    
+    //the updates that are measured
+    private static final int UPDATES = 1000;
+    
+    /**
+     * Measure the collisions for each number of balls and print the results
+     * @param seed The seed for the ball locations and directions
+     * @throws Exception
+     */
+    public static void collisions(final long seed) throws Exception
+    {
+        //the middle count is measured first so the code is compiled before anything is printed
+        measure(seed, COUNTS[COUNTS.length / 2]);
+        
+        //the time per ball of the fewest balls, to compare the rest to
+        double first = 0;
+        
+        for (int count : COUNTS)
+        {
+            final long[] result = measure(seed, count);
+            final long time = result[0], pairs = result[1];
+            final int side = getSide(count);
+            
+            final double perBall = (double)time / UPDATES / count;
+            
+            if (first == 0)
+                first = perBall;
+            
+            System.out.printf("collisions: %d balls, arena %dx%d, %.2f ms/update, %.0f ns/ball, %.1f bounces/update, %.2fx the time per ball of %d balls%n",
+                count, side, side, time / 1e6 / UPDATES, perBall, (double)pairs / UPDATES, perBall / first, COUNTS[0]);
+        }
+    }
+    
+    /**
+     * Get the size of a square arena big enough for the balls to cover the same part at every count
+     * @param count The number of balls
+     * @return The width and height of the arena
+     */
+    private static int getSide(final int count)
+    {
+        final int size = BallManager.BallSize.Small.getValue();
+        
+        return (int)Math.ceil(Math.sqrt(count * size * size / COVERAGE));
+    }
+    
+    /**
+     * Move the balls and bounce them off each other
+     * @param seed The seed for the ball locations and directions
+     * @param count The number of balls
+     * @return The nanoseconds spent bouncing the balls and the number of bounces in the measured updates
+     * @throws Exception
+     */
+    private static long[] measure(final long seed, final int count) throws Exception
+    {
+        final int side = getSide(count);
+        final Rectangle arena = new Rectangle(0, 0, side, side);
+        
+        final BallManager balls = new BallManager(new SeededRandom(seed));
+        balls.setEventsEnabled(false);
+        balls.reset(arena, count, BallManager.BallSize.Small.ordinal(), BallManager.BallSpeed.Medium.ordinal());
+        
+        final Board board = new Board();
+        board.reset(arena, balls.getEngine());
+        balls.getOwnership().reset(board);
+        
+        //nobody is capturing so no lives are lost
+        final Capture capture = new Capture();
+        
+        final BallCollisions collisions = new BallCollisions();
+        
+        long time = 0, pairs = 0;
+        
+        for (int update = 0; update < WARMUP + UPDATES; update++)
+        {
+            //the balls are moved the same as the game, only the collisions are timed
+            balls.update(board, capture, 1.0);
+            
+            final long start = System.nanoTime();
+            final int bounced = collisions.update(balls.getEngine(), balls.getOwnership().getRegions());
+            
+            if (update >= WARMUP)
+            {
+                time += System.nanoTime() - start;
+                pairs += bounced;
+            }
+        }
+        
+        balls.dispose();
+        
+        return new long[]{time, pairs};
+    }
+}
\ No newline at end of file
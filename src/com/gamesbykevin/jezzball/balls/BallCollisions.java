@@ -0,0 +1,201 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+
+/**
+ * Bounces the balls off each other.
+ * The balls are sorted into a grid of cells at least as big as the largest ball,
+ * so a ball can only touch the balls in its own cell and the 8 cells around it
+ * and the time taken grows with the number of balls, not the number of pairs.
+ *
+ * Balls only bounce off balls inside the same boundary.
+ *
+ * @author GOD
+ */
+final class BallCollisions
+{
+    //the most cells for each ball, the cells are made bigger when the balls are spread out more than this
+    private static final int CELLS_PER_BALL = 4;
+    
+    //the position in order of the first ball in each cell
+    private int[] start = new int[0];
+    
+    //the balls sorted by cell
+    private int[] order = new int[0];
+    
+    //the cell of each ball, -1 if the ball isn't inside a boundary
+    private int[] cells = new int[0];
+    
+    /**
+     * Bounce every pair of touching balls off each other
+     * @param engine The balls
+     * @param regions The slot of the boundary each ball is inside, BoundaryStore.NONE if it isn't inside one
+     * @return The number of pairs that bounced
+     */
+    int update(final BallEngine engine, final int[] regions)
+    {
+        final int count = engine.getCount();
+        
+        //the area the balls are in and the size of the largest ball
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double size = 0;
+        
+        for (int i = 0; i < count; i++)
+        {
+            if (regions[i] == BoundaryStore.NONE)
+                continue;
+            
+            minX = Math.min(minX, engine.getX(i));
+            minY = Math.min(minY, engine.getY(i));
+            maxX = Math.max(maxX, engine.getX(i));
+            maxY = Math.max(maxY, engine.getY(i));
+            size = Math.max(size, Math.max(engine.getWidth(i), engine.getHeight(i)));
+        }
+        
+        //nothing to bounce off
+        if (count < 2 || size <= 0)
+            return 0;
+        
+        //touching balls are always in the same or neighbouring cells
+        double cell = size;
+        int columns, rows;
+        
+        while (true)
+        {
+            columns = (int)((maxX - minX) / cell) + 1;
+            rows = (int)((maxY - minY) / cell) + 1;
+            
+            if ((long)columns * rows <= (long)count * CELLS_PER_BALL)
+                break;
+            
+            cell *= 2;
+        }
+        
+        sort(engine, regions, minX, minY, cell, columns, rows);
+        
+        int total = 0;
+        
+        for (int row = 0; row < rows; row++)
+        {
+            for (int column = 0; column < columns; column++)
+            {
+                final int index = (row * columns) + column;
+                
+                //empty cell
+                if (start[index] == start[index + 1])
+                    continue;
+                
+                //the balls in the same cell
+                for (int i = start[index]; i < start[index + 1]; i++)
+                {
+                    for (int j = i + 1; j < start[index + 1]; j++)
+                    {
+                        if (collide(engine, regions, order[i], order[j]))
+                            total++;
+                    }
+                }
+                
+                //only the cells after this one so each pair is checked once
+                if (column + 1 < columns)
+                    total += collideCells(engine, regions, index, index + 1);
+                
+                if (row + 1 < rows)
+                {
+                    if (column > 0)
+                        total += collideCells(engine, regions, index, index + columns - 1);
+                    
+                    total += collideCells(engine, regions, index, index + columns);
+                    
+                    if (column + 1 < columns)
+                        total += collideCells(engine, regions, index, index + columns + 1);
+                }
+            }
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Sort the balls by cell (counting sort), the balls in each cell stay in order of index
+     */
+    private void sort(final BallEngine engine, final int[] regions, final double minX, final double minY, final double cell, final int columns, final int rows)
+    {
+        final int count = engine.getCount();
+        final int total = columns * rows;
+        
+        if (start.length < total + 1)
+            start = new int[total + 1];
+        
+        if (order.length < count)
+        {
+            order = new int[count];
+            cells = new int[count];
+        }
+        
+        for (int index = 0; index <= total; index++)
+        {
+            start[index] = 0;
+        }
+        
+        //count the balls in each cell
+        for (int i = 0; i < count; i++)
+        {
+            if (regions[i] == BoundaryStore.NONE)
+            {
+                cells[i] = -1;
+                continue;
+            }
+            
+            final int column = (int)((engine.getX(i) - minX) / cell);
+            final int row = (int)((engine.getY(i) - minY) / cell);
+            
+            cells[i] = (row * columns) + column;
+            start[cells[i]]++;
+        }
+        
+        //the position after the last ball in each cell
+        for (int index = 1; index < total; index++)
+        {
+            start[index] += start[index - 1];
+        }
+        
+        start[total] = start[total - 1];
+        
+        //fill each cell from the back so each cell ends up starting at its own position
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (cells[i] >= 0)
+                order[--start[cells[i]]] = i;
+        }
+    }
+    
+    /**
+     * Bounce the touching balls between 2 different cells
+     * @return The number of pairs that bounced
+     */
+    private int collideCells(final BallEngine engine, final int[] regions, final int cell1, final int cell2)
+    {
+        int total = 0;
+        
+        for (int i = start[cell1]; i < start[cell1 + 1]; i++)
+        {
+            for (int j = start[cell2]; j < start[cell2 + 1]; j++)
+            {
+                if (collide(engine, regions, order[i], order[j]))
+                    total++;
+            }
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Bounce 2 balls off each other if they are inside the same boundary
+     * @return true if the balls bounced
+     */
+    private static boolean collide(final BallEngine engine, final int[] regions, final int a, final int b)
+    {
+        return (regions[a] == regions[b] && engine.collide(a, b));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,553 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+
+import java.awt.Rectangle;
+
+/**
+ * Keeps the location, velocity and size of every ball in parallel arrays.
+ * Each ball is an index into the arrays so moving all of the balls is 1 loop over primitives,
+ * the Ball sprites are only used to draw the balls.
+ *
+ * The location of each ball is stored at the time it was last changed, getX() and getY() return the location at the clock.
+ * When every ball is moved each update the clock and the times stay at 0,
+ * BallEvents moves the clock instead and only changes a ball when it reaches a wall.
+ *
+ * @author GOD
+ */
+public final class BallEngine
+{
+    //how many balls to start with
+    private static final int INITIAL_CAPACITY = 64;
+    
+    //the most times a ball can bounce in 1 update, only reached in a boundary smaller than the ball
+    private static final int MAX_BOUNCES = 8;
+    
+    //location of each ball
+    private double[] x, y;
+    
+    //velocity of each ball
+    private double[] velocityX, velocityY;
+    
+    //dimensions of each ball
+    private double[] width, height;
+    
+    //the time each location is for
+    private double[] time;
+    
+    //the current time
+    private double clock = 0;
+    
+    //the number of balls
+    private int count;
+    
+    public BallEngine()
+    {
+        this.x         = new double[INITIAL_CAPACITY];
+        this.y         = new double[INITIAL_CAPACITY];
+        this.velocityX = new double[INITIAL_CAPACITY];
+        this.velocityY = new double[INITIAL_CAPACITY];
+        this.width     = new double[INITIAL_CAPACITY];
+        this.height    = new double[INITIAL_CAPACITY];
+        this.time      = new double[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Remove every ball and make sure there is room for the number of balls
+     * @param capacity The number of balls that will be added
+     */
+    public void reset(final int capacity)
+    {
+        count = 0;
+        clock = 0;
+        
+        if (x.length < capacity)
+        {
+            x         = new double[capacity];
+            y         = new double[capacity];
+            velocityX = new double[capacity];
+            velocityY = new double[capacity];
+            width     = new double[capacity];
+            height    = new double[capacity];
+            time      = new double[capacity];
+        }
+    }
+    
+    /**
+     * Add a ball
+     * @return The index of the new ball
+     */
+    public int add(final double x, final double y, final double velocityX, final double velocityY, final double width, final double height)
+    {
+        if (count == this.x.length)
+            grow(count * 2);
+        
+        this.x[count]         = x;
+        this.y[count]         = y;
+        this.velocityX[count] = velocityX;
+        this.velocityY[count] = velocityY;
+        this.width[count]     = width;
+        this.height[count]    = height;
+        this.time[count]      = clock;
+        
+        return count++;
+    }
+    
+    /**
+     * Grow the arrays keeping the existing balls
+     */
+    private void grow(final int capacity)
+    {
+        x         = copy(x, capacity);
+        y         = copy(y, capacity);
+        velocityX = copy(velocityX, capacity);
+        velocityY = copy(velocityY, capacity);
+        width     = copy(width, capacity);
+        height    = copy(height, capacity);
+        time      = copy(time, capacity);
+    }
+    
+    private static double[] copy(final double[] array, final int capacity)
+    {
+        final double[] tmp = new double[capacity];
+        System.arraycopy(array, 0, tmp, 0, array.length);
+        return tmp;
+    }
+    
+    /**
+     * Get the number of balls
+     * @return int
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get the location of the ball at the clock
+     * @param index The index of the ball
+     * @return x-coordinate
+     */
+    public double getX(final int index)
+    {
+        return getX(index, clock);
+    }
+    
+    /**
+     * Get the location of the ball at the clock
+     * @param index The index of the ball
+     * @return y-coordinate
+     */
+    public double getY(final int index)
+    {
+        return getY(index, clock);
+    }
+    
+    /**
+     * Get the location of the ball at the time, as long as it doesn't reach a wall before then
+     * @param index The index of the ball
+     * @param time The time
+     * @return x-coordinate
+     */
+    double getX(final int index, final double time)
+    {
+        return x[index] + velocityX[index] * (time - this.time[index]);
+    }
+    
+    /**
+     * Get the location of the ball at the time, as long as it doesn't reach a wall before then
+     * @param index The index of the ball
+     * @param time The time
+     * @return y-coordinate
+     */
+    double getY(final int index, final double time)
+    {
+        return y[index] + velocityY[index] * (time - this.time[index]);
+    }
+    
+    public double getVelocityX(final int index)
+    {
+        return velocityX[index];
+    }
+    
+    public double getVelocityY(final int index)
+    {
+        return velocityY[index];
+    }
+    
+    public double getWidth(final int index)
+    {
+        return width[index];
+    }
+    
+    public double getHeight(final int index)
+    {
+        return height[index];
+    }
+    
+    public double getCenterX(final int index)
+    {
+        return getX(index) + (width[index] / 2);
+    }
+    
+    public double getCenterY(final int index)
+    {
+        return getY(index) + (height[index] / 2);
+    }
+    
+    double getClock()
+    {
+        return this.clock;
+    }
+    
+    void setClock(final double clock)
+    {
+        this.clock = clock;
+    }
+    
+    /**
+     * Get the time the stored location of the ball is for
+     * @param index The index of the ball
+     * @return double
+     */
+    double getTime(final int index)
+    {
+        return time[index];
+    }
+    
+    void setTime(final int index, final double time)
+    {
+        this.time[index] = time;
+    }
+    
+    /**
+     * Move the ball in a straight line to the time, walls are not checked
+     * @param index The index of the ball
+     * @param time The time to move the ball to
+     */
+    void advance(final int index, final double time)
+    {
+        x[index] += velocityX[index] * (time - this.time[index]);
+        y[index] += velocityY[index] * (time - this.time[index]);
+        
+        this.time[index] = time;
+    }
+    
+    /**
+     * Reverse the direction of the ball on each axis
+     * @param index The index of the ball
+     * @param flipX Reverse the x-axis
+     * @param flipY Reverse the y-axis
+     */
+    void reverse(final int index, final boolean flipX, final boolean flipY)
+    {
+        if (flipX)
+            velocityX[index] = -velocityX[index];
+        if (flipY)
+            velocityY[index] = -velocityY[index];
+    }
+    
+    /**
+     * Store the location of every ball at the clock and set the clock back to 0,
+     * needed before every ball is moved each update again
+     */
+    void settle()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            advance(i, clock);
+            
+            time[i] = 0;
+        }
+        
+        clock = 0;
+    }
+    
+    /**
+     * Move every ball by its velocity for the amount of time.
+     * Each ball bounces off the walls of its boundary at the exact time it reaches them,
+     * so fast balls and long updates don't go through walls or the capture boundary.
+     *
+     * @param store The boundaries
+     * @param regions The slot of the boundary each ball is inside, BoundaryStore.NONE if it isn't inside one
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @param captures The capture boundary in each boundary indexed by slot, null if the boundary isn't being captured
+     * @param hits Set to true for the slot of each boundary whose capture boundary was touched
+     * @return The index of the first ball that touched a capture boundary during the update, -1 if none did
+     */
+    public int update(final BoundaryStore store, final int[] regions, final double delta, final Rectangle[] captures, final boolean[] hits)
+    {
+        return update(store, regions, 0, count, delta, captures, hits);
+    }
+    
+    /**
+     * Move the balls from start up to but not including end.
+     * Each ball only changes its own location and velocity so different balls can be moved at the same time on different threads.
+     *
+     * @param store The boundaries
+     * @param regions The slot of the boundary each ball is inside, BoundaryStore.NONE if it isn't inside one
+     * @param start The index of the first ball
+     * @param end The index after the last ball
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @param captures The capture boundary in each boundary indexed by slot, null if the boundary isn't being captured
+     * @param hits Set to true for the slot of each boundary whose capture boundary was touched
+     * @return The index of the first ball that touched a capture boundary during the update, -1 if none did
+     */
+    int update(final BoundaryStore store, final int[] regions, final int start, final int end, final double delta, final Rectangle[] captures, final boolean[] hits)
+    {
+        int hit = -1;
+        
+        for (int i = start; i < end; i++)
+        {
+            final int slot = regions[i];
+            
+            //only the capture boundary in the same boundary can be touched
+            final Rectangle capture = getCapture(captures, hits, slot);
+            
+            if (move(i, store, slot, delta, capture))
+            {
+                hits[slot] = true;
+                
+                if (hit < 0)
+                    hit = i;
+            }
+        }
+        
+        return hit;
+    }
+    
+    /**
+     * Get the capture boundary a ball inside the boundary has to check
+     * @param captures The capture boundary in each boundary indexed by slot
+     * @param hits Has the capture boundary already been touched, indexed by slot
+     * @param slot The slot of the boundary the ball is inside
+     * @return The capture boundary, null if there is nothing to check
+     */
+    static Rectangle getCapture(final Rectangle[] captures, final boolean[] hits, final int slot)
+    {
+        //once a ball has hit the capture boundary the rest don't need to be checked
+        if (slot < 0 || slot >= captures.length || hits[slot])
+            return null;
+        
+        return captures[slot];
+    }
+    
+    /**
+     * Move 1 ball from its stored location for the amount of time, the time of the location is not changed
+     * @param i The index of the ball
+     * @param store The boundaries
+     * @param slot The slot of the boundary the ball is inside, BoundaryStore.NONE if it isn't inside one
+     * @param delta The amount of time
+     * @param area The capture boundary, null if not capturing
+     * @return true if the ball touched the capture boundary during the move
+     */
+    boolean move(final int i, final BoundaryStore store, final int slot, final double delta, final Rectangle area)
+    {
+        //the ball has to stay between these locations
+        final double minX, minY, maxX, maxY;
+        
+        if (slot != BoundaryStore.NONE)
+        {
+            minX = store.getX(slot);
+            minY = store.getY(slot);
+            maxX = minX + store.getWidth(slot) - width[i];
+            maxY = minY + store.getHeight(slot) - height[i];
+        }
+        else
+        {
+            //nothing to bounce off
+            minX = Double.NEGATIVE_INFINITY;
+            minY = Double.NEGATIVE_INFINITY;
+            maxX = Double.POSITIVE_INFINITY;
+            maxY = Double.POSITIVE_INFINITY;
+        }
+        
+        final double newX = x[i] + velocityX[i] * delta;
+        final double newY = y[i] + velocityY[i] * delta;
+        
+        //most of the time the ball doesn't reach a wall so it moves in a straight line
+        if (newX > minX && newX < maxX && newY > minY && newY < maxY)
+        {
+            final boolean touched = (area != null && sweep(x[i], y[i], velocityX[i], velocityY[i], width[i], height[i], delta, area));
+            
+            x[i] = newX;
+            y[i] = newY;
+            
+            return touched;
+        }
+        
+        return bounce(i, minX, minY, maxX, maxY, delta, area);
+    }
+    
+    /**
+     * Move the ball for the amount of time, bouncing off each wall at the time it reaches it
+     * @param i The index of the ball
+     * @param minX The lowest x-coordinate of the ball
+     * @param minY The lowest y-coordinate of the ball
+     * @param maxX The highest x-coordinate of the ball
+     * @param maxY The highest y-coordinate of the ball
+     * @param delta The amount of time
+     * @param capture The capture boundary, null if not capturing
+     * @return true if the ball touched the capture boundary at any time during the move
+     */
+    private boolean bounce(final int i, final double minX, final double minY, final double maxX, final double maxY, final double delta, final Rectangle capture)
+    {
+        double locationX = x[i];
+        double locationY = y[i];
+        double speedX = velocityX[i];
+        double speedY = velocityY[i];
+        
+        double remaining = delta;
+        
+        boolean touched = false;
+        
+        for (int bounce = 0; remaining > 0 && bounce < MAX_BOUNCES; bounce++)
+        {
+            //the time until the ball reaches a wall on each axis
+            final double timeX = getTime(locationX, speedX, minX, maxX);
+            final double timeY = getTime(locationY, speedY, minY, maxY);
+            
+            //move until the first wall is reached or the time is up
+            final double time = Math.min(remaining, Math.min(timeX, timeY));
+            
+            if (capture != null && !touched)
+                touched = sweep(locationX, locationY, speedX, speedY, width[i], height[i], time, capture);
+            
+            locationX += speedX * time;
+            locationY += speedY * time;
+            remaining -= time;
+            
+            //bounce off the walls that were reached
+            if (time == timeX)
+                speedX = -speedX;
+            if (time == timeY)
+                speedY = -speedY;
+        }
+        
+        x[i] = locationX;
+        y[i] = locationY;
+        velocityX[i] = speedX;
+        velocityY[i] = speedY;
+        
+        return touched;
+    }
+    
+    /**
+     * Bounce 2 balls off each other if they are touching and moving towards each other.
+     * The balls are circles and the bounce is elastic, the mass of each ball is its area.
+     * @param a The index of the first ball
+     * @param b The index of the second ball
+     * @return true if the balls bounced
+     */
+    boolean collide(final int a, final int b)
+    {
+        //the line between the centers
+        final double distanceX = (x[b] + (width[b] / 2)) - (x[a] + (width[a] / 2));
+        final double distanceY = (y[b] + (height[b] / 2)) - (y[a] + (height[a] / 2));
+        final double distance = (distanceX * distanceX) + (distanceY * distanceY);
+        
+        //the balls touch when the centers are closer than the radius of both
+        final double radius = (width[a] + width[b]) / 2;
+        
+        if (distance >= radius * radius || distance == 0)
+            return false;
+        
+        //how fast the balls are moving towards each other along the line, times the length of the line
+        final double closing = ((velocityX[a] - velocityX[b]) * distanceX) + ((velocityY[a] - velocityY[b]) * distanceY);
+        
+        //already moving apart
+        if (closing <= 0)
+            return false;
+        
+        final double massA = width[a] * height[a];
+        final double massB = width[b] * height[b];
+        
+        //the change in velocity along the line for each unit of mass
+        final double impulse = (2 * closing) / ((massA + massB) * distance);
+        
+        velocityX[a] -= impulse * massB * distanceX;
+        velocityY[a] -= impulse * massB * distanceY;
+        velocityX[b] += impulse * massA * distanceX;
+        velocityY[b] += impulse * massA * distanceY;
+        
+        return true;
+    }
+    
+    /**
+     * Get the time until the location reaches the wall it is moving towards
+     * @return The time, 0 if the wall has already been reached and infinity if not moving
+     */
+    static double getTime(final double location, final double speed, final double min, final double max)
+    {
+        if (speed > 0)
+            return Math.max(0, (max - location) / speed);
+        if (speed < 0)
+            return Math.max(0, (min - location) / speed);
+        
+        return Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Does the ball touch the area at any time while moving in a straight line, same as Rectangle.intersects() at each point in time
+     * @param locationX x-coordinate of the ball at the start
+     * @param locationY y-coordinate of the ball at the start
+     * @param speedX The distance moved on the x-axis each unit of time
+     * @param speedY The distance moved on the y-axis each unit of time
+     * @param width width of the ball
+     * @param height height of the ball
+     * @param time The amount of time the ball is moving
+     * @param area The area to check
+     * @return boolean
+     */
+    private static boolean sweep(final double locationX, final double locationY, final double speedX, final double speedY, final double width, final double height, final double time, final Rectangle area)
+    {
+        if (area.width <= 0 || area.height <= 0 || width <= 0 || height <= 0)
+            return false;
+        
+        //the area covered by the entire move
+        final double endX = locationX + (speedX * time);
+        final double endY = locationY + (speedY * time);
+        
+        if (Math.min(locationX, endX) >= area.x + area.width || Math.max(locationX, endX) + width <= area.x ||
+            Math.min(locationY, endY) >= area.y + area.height || Math.max(locationY, endY) + height <= area.y)
+            return false;
+        
+        //touching at the start
+        if (locationX < area.x + area.width && locationX + width > area.x && locationY < area.y + area.height && locationY + height > area.y)
+            return true;
+        
+        //the time the ball starts and stops overlapping the area on each axis, the ball touches when both overlap
+        double enter = 0;
+        double exit = time;
+        
+        if (speedX == 0)
+        {
+            if (locationX >= area.x + area.width || locationX + width <= area.x)
+                return false;
+        }
+        else
+        {
+            final double time1 = (area.x - (locationX + width)) / speedX;
+            final double time2 = (area.x + area.width - locationX) / speedX;
+            
+            enter = Math.max(enter, Math.min(time1, time2));
+            exit = Math.min(exit, Math.max(time1, time2));
+        }
+        
+        if (speedY == 0)
+        {
+            if (locationY >= area.y + area.height || locationY + height <= area.y)
+                return false;
+        }
+        else
+        {
+            final double time1 = (area.y - (locationY + height)) / speedY;
+            final double time2 = (area.y + area.height - locationY) / speedY;
+            
+            enter = Math.max(enter, Math.min(time1, time2));
+            exit = Math.min(exit, Math.max(time1, time2));
+        }
+        
+        return (enter < exit);
+    }
+}
\ No newline at end of file
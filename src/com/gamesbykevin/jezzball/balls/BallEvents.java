@@ -0,0 +1,637 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.player.CaptureLine;
+
+import java.awt.Rectangle;
+
+/**
+ * Moves the balls from event to event instead of moving every ball each update.
+ * Inside a boundary a ball moves in a straight line until it reaches a wall, so the time of the next wall is known exactly.
+ * The balls are kept in a priority queue by the time of their next event (a wall or getting near a capture boundary)
+ * and an update only changes the balls with an event before the end of the update,
+ * the location of every other ball is worked out from the clock when it is read.
+ *
+ * Balls near a capture boundary are moved every update by BallEngine.move() so the capture is checked the same way as the other modes,
+ * the same goes for balls in a boundary that isn't larger than themselves.
+ * Each capture is inside its own boundary so only the balls in that boundary are watched,
+ * the cost of a capture depends on the balls near it and not on the number of balls.
+ * Balls bouncing off each other change direction at any time so this can't be used with BallCollisions.
+ * @author GOD
+ */
+final class BallEvents
+{
+    //the position of a ball that is moved every update
+    private static final int POLLED = -1;
+    
+    //the position of a ball that is being changed and isn't in the queue or moved every update
+    private static final int FREE = -2;
+    
+    //the walls reached at the event
+    private static final int WALL_X = 1;
+    private static final int WALL_Y = 2;
+    
+    //how close (pixels) a ball gets to a capture area before its event
+    private static final double NEAR = 1;
+    
+    //how close (pixels) a ball is to a capture area while it is moved every update,
+    //larger than NEAR so a ball is always moved every update after its event and never has an event straight after it stops
+    private static final double FAR = 2;
+    
+    //the balls the events are for
+    private final BallEngine engine;
+    
+    //the boundary each ball is inside
+    private final BallOwnership ownership;
+    
+    //the time of the next event for each ball, indexed by ball
+    private double[] events = new double[0];
+    
+    //the walls reached at the next event for each ball, indexed by ball
+    private int[] walls = new int[0];
+    
+    //the balls in the queue, a heap with the earliest event first
+    private int[] queue = new int[0];
+    
+    //the position of each ball in the queue or POLLED/FREE, indexed by ball
+    private int[] positions = new int[0];
+    
+    //the number of balls in the queue
+    private int size = 0;
+    
+    //the balls moved every update
+    private int[] polled = new int[0];
+    
+    //the number of balls moved every update
+    private int polledCount = 0;
+    
+    //have the events been found for every ball
+    private boolean started = false;
+    
+    //the boundaries being captured when the events were found
+    private int[] captureRegions = new int[0];
+    
+    //the number of boundaries being captured
+    private int captureRegionCount = 0;
+    
+    //is each boundary being captured, indexed by the slot of the boundary
+    private boolean[] nearCapture = new boolean[0];
+    
+    //the area each capture boundary will cover, indexed by the slot of the boundary
+    private Rectangle[] captureAreas = new Rectangle[0];
+    
+    //is the capture still in progress, only used while the captures are found again
+    private boolean[] kept = new boolean[0];
+    
+    BallEvents(final BallEngine engine, final BallOwnership ownership)
+    {
+        this.engine = engine;
+        this.ownership = ownership;
+    }
+    
+    /**
+     * Move the clock forward, only the balls with an event before the end of the update are changed
+     * @param board The board containing the boundaries
+     * @param player The captures of the player, the hits are set for each capture boundary touched
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @return The index of the first ball that touched a capture boundary during the update, -1 if none did
+     */
+    int update(final Board board, final Capture player, final double delta)
+    {
+        final BoundaryStore store = board.getStore();
+        final int[] regions = ownership.getRegions();
+        
+        final double start = engine.getClock();
+        final double end = start + delta;
+        
+        if (!started)
+            begin(store, start);
+        
+        //the balls in a boundary that was split have new walls
+        final int count = ownership.takeChanged();
+        
+        //a capture was started or stopped, the balls in its boundary need new events
+        if (hasCaptureChanged(player))
+            setCapture(store, player, start);
+        
+        for (int i = 0; i < count; i++)
+        {
+            replan(ownership.getChanged(i), store, start);
+        }
+        
+        //each ball is only checked against the capture boundary in its own boundary
+        final Rectangle[] captures = player.getCaptureBoundaries();
+        final boolean[] hits = player.getHits();
+        
+        int hit = -1;
+        
+        //move the balls near a capture boundary the same as every ball is moved without events
+        for (int index = 0; index < polledCount; )
+        {
+            final int ball = polled[index];
+            
+            if (move(ball, store, regions[ball], delta, captures, hits) && hit < 0)
+                hit = ball;
+            
+            engine.setTime(ball, end);
+            
+            if (isPolled(ball, store, end))
+            {
+                index++;
+            }
+            else
+            {
+                //the ball moved away, the last ball takes its place in the list
+                polled[index] = polled[--polledCount];
+                positions[ball] = FREE;
+                
+                schedule(ball, store, end);
+            }
+        }
+        
+        //every event until the end of the update in order
+        while (size > 0 && events[queue[0]] <= end)
+        {
+            final int ball = queue[0];
+            
+            remove(ball);
+            
+            final double time = events[ball];
+            
+            engine.advance(ball, time);
+            engine.reverse(ball, (walls[ball] & WALL_X) != 0, (walls[ball] & WALL_Y) != 0);
+            
+            if (isPolled(ball, store, time))
+            {
+                //the ball is near a capture boundary, move it for the rest of the update and every update after
+                if (move(ball, store, regions[ball], end - time, captures, hits) && hit < 0)
+                    hit = ball;
+                
+                engine.setTime(ball, end);
+                
+                positions[ball] = POLLED;
+                polled[polledCount++] = ball;
+            }
+            else
+            {
+                schedule(ball, store, time);
+            }
+        }
+        
+        engine.setClock(end);
+        
+        return hit;
+    }
+    
+    /**
+     * Move 1 ball and check the capture boundary in its boundary
+     * @return true if the ball touched the capture boundary
+     */
+    private boolean move(final int ball, final BoundaryStore store, final int slot, final double delta, final Rectangle[] captures, final boolean[] hits)
+    {
+        if (!engine.move(ball, store, slot, delta, BallEngine.getCapture(captures, hits, slot)))
+            return false;
+        
+        hits[slot] = true;
+        
+        return true;
+    }
+    
+    /**
+     * Stop using events, the location of every ball is stored at the clock so every ball can be moved each update again
+     */
+    void stop()
+    {
+        if (!started)
+            return;
+        
+        engine.settle();
+        ownership.setTracking(false);
+        
+        size = 0;
+        polledCount = 0;
+        started = false;
+    }
+    
+    /**
+     * Find the next event for every ball
+     */
+    private void begin(final BoundaryStore store, final double now)
+    {
+        final int count = engine.getCount();
+        
+        if (positions.length < count)
+        {
+            events    = new double[count];
+            walls     = new int[count];
+            queue     = new int[count];
+            positions = new int[count];
+            polled    = new int[count];
+        }
+        
+        size = 0;
+        polledCount = 0;
+        
+        //the captures are found again
+        for (int i = 0; i < captureRegionCount; i++)
+        {
+            nearCapture[captureRegions[i]] = false;
+        }
+        
+        captureRegionCount = 0;
+        
+        //keep the balls that change boundary from now on
+        ownership.setTracking(true);
+        
+        for (int ball = 0; ball < count; ball++)
+        {
+            positions[ball] = FREE;
+            
+            engine.advance(ball, now);
+            
+            schedule(ball, store, now);
+        }
+        
+        started = true;
+    }
+    
+    /**
+     * Has a capture started or stopped since the events were found
+     */
+    private boolean hasCaptureChanged(final Capture player)
+    {
+        if (player.getCount() != captureRegionCount)
+            return true;
+        
+        for (int index = 0; index < player.getCount(); index++)
+        {
+            if (!hasCapture(player.getLine(index)))
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Were the events found for the capture
+     */
+    private boolean hasCapture(final CaptureLine line)
+    {
+        final int slot = line.getSlot();
+        
+        return (slot < nearCapture.length && nearCapture[slot] && captureAreas[slot].equals(line.getCaptureArea()));
+    }
+    
+    /**
+     * Find the boundaries being captured and make sure no ball in a new capture's boundary gets near the capture area before its event.
+     * The events for the captures before are left in the queue, at the event the next event is found again.
+     */
+    private void setCapture(final BoundaryStore store, final Capture player, final double now)
+    {
+        for (int index = 0; index < player.getCount(); index++)
+        {
+            final CaptureLine line = player.getLine(index);
+            final int slot = line.getSlot();
+            
+            if (hasCapture(line))
+            {
+                kept[slot] = true;
+                continue;
+            }
+            
+            if (slot >= nearCapture.length)
+            {
+                final int capacity = Math.max(slot + 1, nearCapture.length * 2);
+                
+                final boolean[] tmp = new boolean[capacity];
+                System.arraycopy(nearCapture, 0, tmp, 0, nearCapture.length);
+                nearCapture = tmp;
+                
+                final boolean[] tmpKept = new boolean[capacity];
+                System.arraycopy(kept, 0, tmpKept, 0, kept.length);
+                kept = tmpKept;
+                
+                final Rectangle[] tmpAreas = new Rectangle[capacity];
+                System.arraycopy(captureAreas, 0, tmpAreas, 0, captureAreas.length);
+                captureAreas = tmpAreas;
+            }
+            
+            if (captureAreas[slot] == null)
+                captureAreas[slot] = new Rectangle();
+            
+            captureAreas[slot].setBounds(line.getCaptureArea());
+            
+            //the boundary was already being captured by a capture that stopped
+            if (!nearCapture[slot])
+            {
+                if (captureRegionCount == captureRegions.length)
+                {
+                    final int[] tmp = new int[Math.max(4, captureRegionCount * 2)];
+                    System.arraycopy(captureRegions, 0, tmp, 0, captureRegionCount);
+                    captureRegions = tmp;
+                }
+                
+                captureRegions[captureRegionCount++] = slot;
+                nearCapture[slot] = true;
+            }
+            
+            kept[slot] = true;
+            
+            for (int i = 0; i < ownership.getCount(slot); i++)
+            {
+                watch(ownership.getBall(slot, i), store, now);
+            }
+        }
+        
+        //forget the captures that stopped, the last boundary takes its place in the list
+        for (int i = 0; i < captureRegionCount; )
+        {
+            final int slot = captureRegions[i];
+            
+            if (kept[slot])
+            {
+                kept[slot] = false;
+                i++;
+            }
+            else
+            {
+                nearCapture[slot] = false;
+                captureRegions[i] = captureRegions[--captureRegionCount];
+            }
+        }
+    }
+    
+    /**
+     * Move the event of the ball sooner if it gets near the capture area of its boundary first
+     * @param ball The index of the ball, the ball can't have had an event between its current event and now
+     * @param store The boundaries
+     * @param now The current time
+     */
+    private void watch(final int ball, final BoundaryStore store, final double now)
+    {
+        //the ball is checked every update anyway
+        if (positions[ball] == POLLED)
+            return;
+        
+        //already near, check the ball every update from now
+        if (isPolled(ball, store, now))
+        {
+            engine.advance(ball, now);
+            
+            schedule(ball, store, now);
+            
+            return;
+        }
+        
+        final double time = now + getEntry(ball, now);
+        
+        if (time < events[ball])
+        {
+            walls[ball] = 0;
+            
+            push(ball, time);
+        }
+    }
+    
+    /**
+     * Find the next event again for the ball, the ball can't have had an event between its current event and now
+     */
+    private void replan(final int ball, final BoundaryStore store, final double now)
+    {
+        //the ball is checked every update anyway
+        if (positions[ball] == POLLED)
+            return;
+        
+        engine.advance(ball, now);
+        
+        schedule(ball, store, now);
+    }
+    
+    /**
+     * Add the next event for the ball to the queue, or move the ball every update if it has to be checked every update
+     * @param ball The index of the ball, the location has to be stored at the time
+     * @param store The boundaries
+     * @param now The time to start looking from
+     */
+    private void schedule(final int ball, final BoundaryStore store, final double now)
+    {
+        if (isPolled(ball, store, now))
+        {
+            if (positions[ball] >= 0)
+                remove(ball);
+            
+            positions[ball] = POLLED;
+            polled[polledCount++] = ball;
+            
+            return;
+        }
+        
+        final int slot = ownership.getRegion(ball);
+        
+        final double x = engine.getX(ball, now);
+        final double y = engine.getY(ball, now);
+        final double speedX = engine.getVelocityX(ball);
+        final double speedY = engine.getVelocityY(ball);
+        
+        double timeX = Double.POSITIVE_INFINITY;
+        double timeY = Double.POSITIVE_INFINITY;
+        
+        //the time until the ball reaches a wall on each axis, a ball outside of every boundary has nothing to bounce off
+        if (slot != BoundaryStore.NONE)
+        {
+            timeX = BallEngine.getTime(x, speedX, store.getX(slot), store.getX(slot) + store.getWidth(slot) - engine.getWidth(ball));
+            timeY = BallEngine.getTime(y, speedY, store.getY(slot), store.getY(slot) + store.getHeight(slot) - engine.getHeight(ball));
+        }
+        
+        double time = Math.min(timeX, timeY);
+        
+        walls[ball] = 0;
+        
+        if (time == timeX)
+            walls[ball] |= WALL_X;
+        if (time == timeY)
+            walls[ball] |= WALL_Y;
+        
+        //the ball gets near a capture boundary before it reaches a wall
+        if (hasCapture(ball))
+        {
+            final double entry = getEntry(ball, now);
+            
+            if (entry < time)
+            {
+                time = entry;
+                walls[ball] = 0;
+            }
+        }
+        
+        push(ball, now + time);
+    }
+    
+    /**
+     * Is the ball inside a boundary being captured
+     */
+    private boolean hasCapture(final int ball)
+    {
+        final int slot = ownership.getRegion(ball);
+        
+        return (slot != BoundaryStore.NONE && slot < nearCapture.length && nearCapture[slot]);
+    }
+    
+    /**
+     * Does the ball have to be moved every update, either it is near the capture boundary in its boundary or its boundary isn't larger than the ball
+     * @param ball The index of the ball
+     * @param store The boundaries
+     * @param now The current time, the ball can't have an event between its stored location and now
+     */
+    private boolean isPolled(final int ball, final BoundaryStore store, final double now)
+    {
+        final int slot = ownership.getRegion(ball);
+        
+        //the ball would reach a wall again straight away
+        if (slot != BoundaryStore.NONE && (store.getWidth(slot) <= engine.getWidth(ball) || store.getHeight(slot) <= engine.getHeight(ball)))
+            return true;
+        
+        if (!hasCapture(ball))
+            return false;
+        
+        final Rectangle captureArea = captureAreas[slot];
+        
+        final double x = engine.getX(ball, now);
+        final double y = engine.getY(ball, now);
+        
+        return (x < captureArea.x + captureArea.width + FAR && x + engine.getWidth(ball) > captureArea.x - FAR &&
+                y < captureArea.y + captureArea.height + FAR && y + engine.getHeight(ball) > captureArea.y - FAR);
+    }
+    
+    /**
+     * Get the time until the ball moving in a straight line gets NEAR the capture area of its boundary
+     * @param ball The index of the ball
+     * @param now The time the location is for
+     * @return The time, infinity if the ball doesn't get near
+     */
+    private double getEntry(final int ball, final double now)
+    {
+        final Rectangle captureArea = captureAreas[ownership.getRegion(ball)];
+        
+        double enter = 0;
+        double exit = Double.POSITIVE_INFINITY;
+        
+        for (int axis = 0; axis < 2; axis++)
+        {
+            final double location = (axis == 0) ? engine.getX(ball, now) : engine.getY(ball, now);
+            final double speed = (axis == 0) ? engine.getVelocityX(ball) : engine.getVelocityY(ball);
+            final double size = (axis == 0) ? engine.getWidth(ball) : engine.getHeight(ball);
+            
+            //the area grown by NEAR
+            final double min = ((axis == 0) ? captureArea.x : captureArea.y) - NEAR;
+            final double max = ((axis == 0) ? captureArea.x + captureArea.width : captureArea.y + captureArea.height) + NEAR;
+            
+            if (speed == 0)
+            {
+                //not moving on this axis so it has to overlap already
+                if (location >= max || location + size <= min)
+                    return Double.POSITIVE_INFINITY;
+            }
+            else
+            {
+                final double time1 = (min - (location + size)) / speed;
+                final double time2 = (max - location) / speed;
+                
+                enter = Math.max(enter, Math.min(time1, time2));
+                exit = Math.min(exit, Math.max(time1, time2));
+            }
+        }
+        
+        return (enter < exit) ? enter : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Add the ball to the queue or change the time of its event
+     */
+    private void push(final int ball, final double time)
+    {
+        events[ball] = time;
+        
+        if (positions[ball] < 0)
+        {
+            queue[size] = ball;
+            positions[ball] = size;
+            size++;
+        }
+        
+        siftUp(positions[ball]);
+        siftDown(positions[ball]);
+    }
+    
+    /**
+     * Remove the ball from the queue
+     */
+    private void remove(final int ball)
+    {
+        final int index = positions[ball];
+        
+        positions[ball] = FREE;
+        size--;
+        
+        //the last ball takes its place
+        if (index < size)
+        {
+            final int last = queue[size];
+            
+            queue[index] = last;
+            positions[last] = index;
+            
+            siftUp(index);
+            siftDown(positions[last]);
+        }
+    }
+    
+    private void siftUp(int index)
+    {
+        final int ball = queue[index];
+        
+        while (index > 0)
+        {
+            final int parent = (index - 1) / 2;
+            
+            if (events[queue[parent]] <= events[ball])
+                break;
+            
+            queue[index] = queue[parent];
+            positions[queue[index]] = index;
+            index = parent;
+        }
+        
+        queue[index] = ball;
+        positions[ball] = index;
+    }
+    
+    private void siftDown(int index)
+    {
+        final int ball = queue[index];
+        
+        while (true)
+        {
+            int child = (index * 2) + 1;
+            
+            if (child >= size)
+                break;
+            
+            //the earlier of the 2 children
+            if (child + 1 < size && events[queue[child + 1]] < events[queue[child]])
+                child++;
+            
+            if (events[ball] <= events[queue[child]])
+                break;
+            
+            queue[index] = queue[child];
+            positions[queue[index]] = index;
+            index = child;
+        }
+        
+        queue[index] = ball;
+        positions[ball] = index;
+    }
+}
\ No newline at end of file
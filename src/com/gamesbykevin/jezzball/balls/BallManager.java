@@ -1,26 +1,45 @@
 package com.gamesbykevin.jezzball.balls;
 
 import com.gamesbykevin.jezzball.board.Board;
-import com.gamesbykevin.jezzball.main.Resources;
-import com.gamesbykevin.jezzball.player.Player;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+import com.gamesbykevin.jezzball.shared.Shared;
 
-import java.awt.Graphics;
 import java.awt.Rectangle;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
- * Class containing all of the balls
+ * Class containing all of the balls, the BallRenderer draws them
  * @author GOD
  */
 public class BallManager 
 {
-    //all of the balls on the screen
-    private List<Ball> balls;
+    //the location, velocity and size of every ball
+    private final BallEngine engine;
+    
+    //the boundary each ball is inside
+    private final BallOwnership ownership;
+    
+    //picks the location and direction of each ball
+    private final SeededRandom random;
+    
+    //moves the balls on several threads once there are enough balls, created when first needed
+    private ParallelUpdate parallel;
+    
+    //bounces the balls off each other, created when first needed
+    private BallCollisions collisions;
+    
+    //moves the balls from event to event, created when first needed
+    private BallEvents events;
     
     //cheating will be freezing the movement of the balls
     private boolean cheatEnabled = false;
     
+    //do the balls bounce off each other
+    private boolean collisionsEnabled = false;
+    
+    //are the balls moved from event to event instead of every update
+    private boolean eventsEnabled = Shared.EVENTS;
+    
     //The different ball sizes and their associated value
     public enum BallSize
     {
@@ -64,15 +83,23 @@ public class BallManager
         }
     }
     
-    public BallManager()
+    /**
+     * Create a new ball manager
+     * @param random Object used to pick the location and direction of each ball
+     */
+    public BallManager(final SeededRandom random)
     {
-        //create a new list of balls
-        balls = new ArrayList<>();
+        this.random = random;
+        
+        //create the arrays that contain every ball
+        engine = new BallEngine();
+        
+        //create the table of which boundary each ball is inside
+        ownership = new BallOwnership(engine);
     }
     
     /**
      * Create a new list of balls each at their own random location inside the container
-     * @param resources Object that will give us a random ball image
      * @param container Area the balls will start inside
      * @param count The number of balls to add
      * @throws Exception 
@@ -88,45 +115,41 @@ public class BallManager
         if (speed >= size)
             throw new Exception("The speed of the balls can't be greater than the size");
         
+        //the events are found again for the new balls
+        if (events != null)
+            events.stop();
+        
         //clear list
-        balls.clear();
+        engine.reset(count);
         
         for (int i=0; i < count; i++)
         {
-            //create new ball
-            Ball ball = new Ball();
-            
             //pick random x, y location for the ball
-            final double x = container.x + (Math.random() * (container.width  - size));
-            final double y = container.y + (Math.random() * (container.height - size));
-            
-            //set the ball coordinates
-            ball.setX(x);
-            ball.setY(y);
+            final double x = container.x + (random.nextDouble() * (container.width  - size));
+            final double y = container.y + (random.nextDouble() * (container.height - size));
             
             //set a random direction
-            final double velocityX = (Math.random() > .5) ? -speed : speed;
-            final double velocityY = (Math.random() > .5) ? -speed : speed;
-            
-            //set the randomly picked velocity
-            ball.setVelocity(velocityX, velocityY);
+            final double velocityX = random.nextBoolean() ? -speed : speed;
+            final double velocityY = random.nextBoolean() ? -speed : speed;
             
             //ball will have same width and height
-            ball.setDimensions(size, size);
-            
-            //add ball to list
-            balls.add(ball);
+            engine.add(x, y, velocityX, velocityY, size, size);
         }
     }
     
-    public List<Ball> getBalls()
+    public BallEngine getEngine()
     {
-        return this.balls;
+        return this.engine;
+    }
+    
+    public BallOwnership getOwnership()
+    {
+        return this.ownership;
     }
     
     public int getCount()
     {
-        return getBalls().size();
+        return engine.getCount();
     }
     
     public boolean hasCheatEnabled()
@@ -139,81 +162,123 @@ public class BallManager
         this.cheatEnabled = cheatEnabled;
     }
     
-    public void update(final Resources resources, final Board board, final Player player)
+    public boolean hasCollisionsEnabled()
+    {
+        return this.collisionsEnabled;
+    }
+    
+    public void setCollisionsEnabled(final boolean collisionsEnabled)
+    {
+        this.collisionsEnabled = collisionsEnabled;
+    }
+    
+    public boolean hasEventsEnabled()
+    {
+        return this.eventsEnabled;
+    }
+    
+    public void setEventsEnabled(final boolean eventsEnabled)
     {
-        //no balls so nothing to update or the user is cheating
-        if (balls == null || hasCheatEnabled())
-            return;
+        this.eventsEnabled = eventsEnabled;
+    }
+    
+    /**
+     * Move the balls and check if they hit a capture boundary
+     * @param board The board containing the boundaries
+     * @param player The lives and capture of the player
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @return true if a ball hit a capture boundary and a life was lost
+     */
+    public boolean update(final Board board, final Capture player, final double delta)
+    {
+        //the user is cheating
+        if (hasCheatEnabled())
+            return false;
         
-        for (Ball ball : balls)
+        //balls bouncing off each other don't have a known next event
+        if (hasEventsEnabled() && !hasCollisionsEnabled())
         {
-            //get a random game ball image
-            if (ball.getImage() == null)
-                ball.setImage(resources.getGameBall());
-            
-            //if the player is trying to capture and the ball hit the player capture boundary
-            if (player.hasCapture() && player.getCaptureBoundary().intersects(ball.getRectangle()))
-            {
-                //make sure we aren't cheating
-                if (!hasCheatEnabled())
-                {
-                    //lose 1 life
-                    player.loseLife();
-                    
-                    //play hit sound effect
-                    resources.getGameAudio(Resources.GameAudio.Hit).play();
-                }
-                
-                //no longer capturing
-                player.switchCapture();
-            }
-            
-            //store location first before we call update
-            final double x = ball.getX();
-            final double y = ball.getY();
-            
-            //find the container the ball currently is in
-            Rectangle tmp = null;
+            if (events == null)
+                events = new BallEvents(engine, ownership);
             
-            for (Rectangle boundary : board.getBoundaries())
-            {
-                //if the ball is inside we found the boundary
-                if (boundary.contains(ball.getRectangle()))
-                {
-                    tmp = boundary;
-                    break;
-                }
-            }
+            //only change the balls that reach a wall or get near a capture boundary
+            return hasHit(events.update(board, player, delta), player);
+        }
+        
+        //the balls were moved by events until now
+        if (events != null)
+            events.stop();
+        
+        //each ball is only checked against the capture boundary in its own boundary while it moves
+        final Rectangle[] captures = player.getCaptureBoundaries();
+        final boolean[] hits = player.getHits();
+        
+        //the first ball that hit a capture boundary
+        final int hit;
+        
+        if (hasParallel())
+        {
+            if (parallel == null)
+                parallel = new ParallelUpdate(Runtime.getRuntime().availableProcessors());
             
-            //update location based on velocity
-            ball.update();
+            //check and move the balls on several threads
+            hit = parallel.update(engine, ownership, board.getStore(), delta, captures, hits);
+        }
+        else
+        {
+            //update the locations of every ball and keep them inside their boundary
+            hit = engine.update(board.getStore(), ownership.getRegions(), delta, captures, hits);
+        }
+        
+        //bounce the balls that are now touching off each other
+        if (hasCollisionsEnabled())
+        {
+            if (collisions == null)
+                collisions = new BallCollisions();
             
-            //if the ball is no longer inside the boundary reverse the velocity
-            if (tmp != null && !tmp.contains(ball.getRectangle()))
-            {
-                //if the x location is out of bounds switch velocity x
-                if (ball.getX() + ball.getWidth() >= tmp.x + tmp.width || ball.getX() <= tmp.x)
-                    ball.setVelocityX(-ball.getVelocityX());
-                
-                //if the x location is out of bounds switch velocity x
-                if (ball.getY() + ball.getHeight() >= tmp.y + tmp.height || ball.getY() <= tmp.y)
-                    ball.setVelocityY(-ball.getVelocityY());
-                
-                //set the ball back to the previous position
-                ball.setLocation(x, y);
-            }
+            collisions.update(engine, ownership.getRegions());
         }
+        
+        return hasHit(hit, player);
     }
     
-    public void render(Graphics graphics)
+    /**
+     * If the player is trying to capture and a ball hit a capture boundary a life is lost for each capture boundary hit
+     * @param hit The index of the first ball that hit a capture boundary, -1 if none did
+     * @param player The lives and capture of the player
+     * @return true if a life was lost
+     */
+    private boolean hasHit(final int hit, final Capture player)
     {
-        //no balls so nothing to update
-        if (balls == null)
-            return;
+        if (hit >= 0)
+        {
+            //lose 1 life for each capture hit, they are no longer capturing
+            player.removeHits();
+            
+            return true;
+        }
         
-        for (Ball ball : balls)
+        return false;
+    }
+    
+    /**
+     * Are there enough balls to move them on several threads
+     * @return boolean
+     */
+    private boolean hasParallel()
+    {
+        return (Shared.PARALLEL_THRESHOLD > 0 && engine.getCount() >= Shared.PARALLEL_THRESHOLD);
+    }
+    
+    /**
+     * Stop the threads used to move the balls
+     */
+    public void dispose()
+    {
+        if (parallel != null)
         {
-            ball.render(graphics);
+            parallel.dispose();
+            parallel = null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,245 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+
+/**
+ * Keeps track of which boundary each ball is inside.
+ * A ball can only change boundary when that boundary is split,
+ * so the table only needs to change for the balls in the split boundary.
+ *
+ * Balls are the index of the ball in the BallEngine.
+ *
+ * @author GOD
+ */
+public final class BallOwnership
+{
+    //how many balls in each boundary to start with
+    private static final int INITIAL_CAPACITY = 16;
+    
+    //the balls the boundaries are for
+    private final BallEngine engine;
+    
+    //the slot of the boundary each ball is inside, indexed by ball
+    private int[] regions = new int[0];
+    
+    //the balls inside each boundary, indexed by the slot of the boundary
+    private int[][] members = new int[0][];
+    
+    //the number of balls inside each boundary, indexed by the slot of the boundary
+    private int[] sizes = new int[0];
+    
+    //the balls in the boundary that was removed last
+    private int[] removed = new int[INITIAL_CAPACITY];
+    
+    //are the balls that change boundary kept
+    private boolean tracking = false;
+    
+    //the balls that changed boundary since they were last taken
+    private int[] changed = new int[INITIAL_CAPACITY];
+    
+    //the number of balls that changed boundary
+    private int changedCount = 0;
+    
+    public BallOwnership(final BallEngine engine)
+    {
+        this.engine = engine;
+    }
+    
+    /**
+     * Get the balls the boundaries are for
+     * @return The BallEngine with the location of every ball
+     */
+    public BallEngine getEngine()
+    {
+        return this.engine;
+    }
+    
+    /**
+     * Find the boundary for every ball
+     * @param board The board containing the boundaries
+     */
+    public void reset(final Board board)
+    {
+        if (regions.length < engine.getCount())
+            regions = new int[engine.getCount()];
+        
+        //every boundary is empty
+        for (int slot = 0; slot < sizes.length; slot++)
+        {
+            sizes[slot] = 0;
+        }
+        
+        for (int i = 0; i < engine.getCount(); i++)
+        {
+            regions[i] = BoundaryStore.NONE;
+            
+            set(i, board.getBoundary(engine.getX(i), engine.getY(i), engine.getWidth(i), engine.getHeight(i)));
+        }
+    }
+    
+    /**
+     * Get the slot of the boundary each ball is inside, indexed by ball.
+     * This is the array itself so the balls can be updated without copying.
+     * @return int[]
+     */
+    int[] getRegions()
+    {
+        return this.regions;
+    }
+    
+    /**
+     * Get the boundary the ball is inside
+     * @param ball The index of the ball
+     * @return The slot of the boundary, BoundaryStore.NONE if the ball isn't inside a boundary
+     */
+    public int getRegion(final int ball)
+    {
+        return regions[ball];
+    }
+    
+    /**
+     * Get the number of balls inside the boundary
+     * @param region The slot of the boundary
+     * @return int
+     */
+    public int getCount(final int region)
+    {
+        return (region < sizes.length) ? sizes[region] : 0;
+    }
+    
+    /**
+     * Get a ball inside the boundary
+     * @param region The slot of the boundary
+     * @param index The index from 0 to getCount(region) - 1
+     * @return The index of the ball
+     */
+    public int getBall(final int region, final int index)
+    {
+        return members[region][index];
+    }
+    
+    /**
+     * Remove the boundary and all of the balls inside it.
+     * The balls need to be assigned to their new boundary with set()
+     * @param region The slot of the boundary
+     * @return The number of balls that were inside, each one is returned by getRemoved()
+     */
+    public int remove(final int region)
+    {
+        final int count = getCount(region);
+        
+        if (removed.length < count)
+            removed = new int[count];
+        
+        if (count > 0)
+        {
+            System.arraycopy(members[region], 0, removed, 0, count);
+            sizes[region] = 0;
+        }
+        
+        for (int i = 0; i < count; i++)
+        {
+            regions[removed[i]] = BoundaryStore.NONE;
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Get a ball from the boundary that was removed last
+     * @param index The index from 0 to the count returned by remove() - 1
+     * @return The index of the ball
+     */
+    public int getRemoved(final int index)
+    {
+        return removed[index];
+    }
+    
+    /**
+     * Keep the balls that change boundary so they can be taken with takeChanged()
+     * @param tracking true to keep the balls, false will also forget the balls already kept
+     */
+    void setTracking(final boolean tracking)
+    {
+        this.tracking = tracking;
+        this.changedCount = 0;
+    }
+    
+    /**
+     * Take the balls that changed boundary, a ball can be included more than once
+     * @return The number of balls, each one is returned by getChanged() until a ball changes boundary again
+     */
+    int takeChanged()
+    {
+        final int count = changedCount;
+        
+        changedCount = 0;
+        
+        return count;
+    }
+    
+    /**
+     * Get a ball that changed boundary
+     * @param index The index from 0 to the count returned by takeChanged() - 1
+     * @return The index of the ball
+     */
+    int getChanged(final int index)
+    {
+        return changed[index];
+    }
+    
+    /**
+     * Set the boundary the ball is inside
+     * @param ball The index of the ball
+     * @param region The slot of the boundary, BoundaryStore.NONE if the ball isn't inside a boundary
+     */
+    public void set(final int ball, final int region)
+    {
+        if (region == BoundaryStore.NONE)
+            return;
+        
+        regions[ball] = region;
+        
+        //make room for the boundary
+        if (region >= sizes.length)
+        {
+            final int capacity = Math.max(region + 1, sizes.length * 2);
+            
+            final int[][] tmpMembers = new int[capacity][];
+            final int[] tmpSizes = new int[capacity];
+            
+            System.arraycopy(members, 0, tmpMembers, 0, members.length);
+            System.arraycopy(sizes, 0, tmpSizes, 0, sizes.length);
+            
+            members = tmpMembers;
+            sizes = tmpSizes;
+        }
+        
+        //make room for the ball
+        if (members[region] == null)
+        {
+            members[region] = new int[INITIAL_CAPACITY];
+        }
+        else if (sizes[region] == members[region].length)
+        {
+            final int[] tmp = new int[sizes[region] * 2];
+            System.arraycopy(members[region], 0, tmp, 0, sizes[region]);
+            members[region] = tmp;
+        }
+        
+        members[region][sizes[region]++] = ball;
+        
+        if (tracking)
+        {
+            if (changedCount == changed.length)
+            {
+                final int[] tmp = new int[changedCount * 2];
+                System.arraycopy(changed, 0, tmp, 0, changedCount);
+                changed = tmp;
+            }
+            
+            changed[changedCount++] = ball;
+        }
+    }
+}
\ No newline at end of file
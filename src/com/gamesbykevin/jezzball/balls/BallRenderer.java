@@ -0,0 +1,48 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.manager.Snapshot;
+
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws the balls from a snapshot, each ball has a sprite with its image
+ * @author GOD
+ */
+public final class BallRenderer
+{
+    //the sprites used to draw each ball, the index is the same as the snapshot
+    private final List<Ball> balls = new ArrayList<>();
+    
+    public List<Ball> getBalls()
+    {
+        return this.balls;
+    }
+    
+    /**
+     * Draw every ball where the snapshot has it
+     * @param graphics Graphics object in arena coordinates
+     * @param snapshot The balls
+     * @param alpha How far from the update before to the last update the balls are drawn, 1 is where the last update left them
+     */
+    public void render(final Graphics graphics, final Snapshot snapshot, final double alpha)
+    {
+        //the sprites are kept for the next frame
+        while (balls.size() < snapshot.getBallCount())
+        {
+            balls.add(new Ball());
+        }
+        
+        for (int i = 0; i < snapshot.getBallCount(); i++)
+        {
+            final Ball ball = balls.get(i);
+            
+            //the sprite is only used to draw the ball where the snapshot has it
+            ball.setImage(snapshot.getBallImage(i));
+            ball.setDimensions(snapshot.getBallWidth(i), snapshot.getBallHeight(i));
+            ball.setLocation(snapshot.getBallX(i, alpha), snapshot.getBallY(i, alpha));
+            ball.render(graphics);
+        }
+    }
+}
\ No newline at end of file
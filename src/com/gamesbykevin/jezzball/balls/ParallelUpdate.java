@@ -0,0 +1,146 @@
+package com.gamesbykevin.jezzball.balls;
+
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+
+import java.awt.Rectangle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Moves the balls on several threads.
+ * The balls are split in half until each batch is small enough for 1 thread,
+ * each batch is a range of ball indexes so the arrays are read in order.
+ *
+ * Each ball only reads its own boundary and only changes its own location and velocity so
+ * the result is exactly the same as moving the balls 1 at a time.
+ * Each batch finds the first ball that hit a capture boundary and the batches are combined in order,
+ * a ball sets the hit for its own boundary so balls in different batches only ever write the same value.
+ * The tasks are created once for the number of balls and used again every update so an update doesn't create garbage.
+ *
+ * @author GOD
+ */
+final class ParallelUpdate
+{
+    //the most balls in a batch
+    private static final int BATCH_SIZE = 4096;
+    
+    //the threads that move the balls
+    private final ForkJoinPool pool;
+    
+    //the task for every ball, the batches are created when the number of balls changes
+    private Task root;
+    
+    //the values for the current update, set before the tasks start
+    private BallEngine engine;
+    private BoundaryStore store;
+    private int[] regions;
+    private double delta;
+    private Rectangle[] captures;
+    private boolean[] hits;
+    
+    /**
+     * Create a new parallel update
+     * @param parallelism The number of threads to use
+     */
+    ParallelUpdate(final int parallelism)
+    {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+    
+    /**
+     * Move every ball
+     * @param engine The balls
+     * @param ownership The boundary each ball is inside
+     * @param store The boundaries
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @param captures The capture boundary in each boundary indexed by slot, null if the boundary isn't being captured
+     * @param hits Set to true for the slot of each boundary whose capture boundary was touched
+     * @return The index of the first ball (lowest index) that hit a capture boundary, -1 if none did
+     */
+    int update(final BallEngine engine, final BallOwnership ownership, final BoundaryStore store, final double delta, final Rectangle[] captures, final boolean[] hits)
+    {
+        this.engine = engine;
+        this.store = store;
+        this.regions = ownership.getRegions();
+        this.delta = delta;
+        this.captures = captures;
+        this.hits = hits;
+        
+        if (root == null || root.end != engine.getCount())
+            root = new Task(0, engine.getCount());
+        
+        //a task can only run again once it is reset
+        root.reinitialize();
+        
+        pool.invoke(root);
+        
+        this.engine = null;
+        this.store = null;
+        this.regions = null;
+        this.captures = null;
+        this.hits = null;
+        
+        return root.hit;
+    }
+    
+    /**
+     * Stop the threads
+     */
+    void dispose()
+    {
+        pool.shutdown();
+    }
+    
+    /**
+     * Moves the balls from start up to but not including end
+     */
+    private final class Task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private final int start, end;
+        
+        //each half of the batch, null if the batch is small enough for 1 thread
+        private final Task first, second;
+        
+        //the first ball in the batch that hit a capture boundary
+        private int hit = -1;
+        
+        private Task(final int start, final int end)
+        {
+            this.start = start;
+            this.end = end;
+            
+            if (end - start > BATCH_SIZE)
+            {
+                final int middle = (start + end) >>> 1;
+                
+                this.first = new Task(start, middle);
+                this.second = new Task(middle, end);
+            }
+            else
+            {
+                this.first = null;
+                this.second = null;
+            }
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if (first != null)
+            {
+                first.reinitialize();
+                second.reinitialize();
+                
+                invokeAll(first, second);
+                
+                //the first half has the lower indexes
+                hit = (first.hit >= 0) ? first.hit : second.hit;
+                return;
+            }
+            
+            hit = engine.update(store, regions, start, end, delta, captures, hits);
+        }
+    }
+}
\ No newline at end of file
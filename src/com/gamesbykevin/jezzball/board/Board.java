@@ -1,25 +1,24 @@
 package com.gamesbykevin.jezzball.board;
 
-import com.gamesbykevin.framework.base.Sprite;
+import com.gamesbykevin.jezzball.balls.BallEngine;
+import com.gamesbykevin.jezzball.balls.BallOwnership;
+import com.gamesbykevin.jezzball.shared.Shared;
 
-import com.gamesbykevin.jezzball.balls.Ball;
-
-import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * The Board that will contain all of the boundaries
+ * The Board that will contain all of the boundaries, the BoardRenderer draws it
  * @author GOD
  */
-public final class Board extends Sprite
+public final class Board
 {
     //all of the boundaries on the board
-    private final List<Rectangle> boundaries;
+    private final BoundaryStore store;
+    
+    //the boundaries indexed by the splits that created them
+    private final BoundaryTree tree;
     
     private static final double START_GOAL = 0.80;
     
@@ -29,33 +28,50 @@ public final class Board extends Sprite
     //the progress towards the goal
     private double progress;
     
+    //keeps track of the area that has not been captured yet
+    private final Occupancy occupancy;
+    
+    //location of the board
+    private int x, y;
+    
+    //dimensions of the board
+    private int width, height;
+    
+    //the area that changed since it was last taken, board coordinates
+    private int damageX1, damageY1, damageX2, damageY2;
+    
+    //has an area changed since it was last taken
+    private boolean damaged = false;
+    
     public Board()
     {
-        //create the list of boundaries
-        boundaries = new ArrayList<>();
+        this(0);
+    }
+    
+    /**
+     * Create a new board
+     * @param cellSize If greater than 0 the captured area is tracked in a grid of cells this size (pixels),
+     * otherwise the captured area is tracked from the boundaries
+     */
+    public Board(final int cellSize)
+    {
+        //create the boundaries and the tree that indexes them
+        store = new BoundaryStore();
+        tree = new BoundaryTree(store);
+        
+        //how we keep track of the captured area
+        occupancy = (cellSize > 0) ? new OccupancyGrid(cellSize) : new RectangleOccupancy();
     }
     
     /**
-     * Count the number of remaining pixels and see if the 
-     * fraction not covered is greater than or equal to the 
-     * goal set.
+     * Is the fraction of the board not covered by boundaries
+     * greater than or equal to the goal set.<br>
+     * The remaining area is tracked as the boundaries change so this is a constant time check.
      * 
      * @return Return true if the percent area shown is at least the goal value set
      */
     public boolean hasGoal()
     {
-        final double totalArea = (super.getWidth() * super.getHeight());
-        
-        double area = 0;
-        
-        for (Rectangle boundary : getBoundaries())
-        {
-            area += (boundary.width * boundary.height);
-        }
-        
-        //set the current progress
-        progress = ((totalArea - area) / totalArea);
-        
         return (progress >= goal);
     }
     
@@ -66,160 +82,296 @@ public final class Board extends Sprite
     
     public double getProgress()
     {
-        //call hasGoal() so the progress value is set
-        hasGoal();
-        
-        //return result
         return this.progress;
     }
     
+    public int getX()
+    {
+        return this.x;
+    }
+    
+    public int getY()
+    {
+        return this.y;
+    }
+    
+    public int getWidth()
+    {
+        return this.width;
+    }
+    
+    public int getHeight()
+    {
+        return this.height;
+    }
+        
+    /**
+     * Get the area of the boundaries that have not been captured
+     * @return long
+     */
+    public long getRemainingArea()
+    {
+        return occupancy.getRemainingArea();
+    }
+    
+    /**
+     * The side of the last split has no balls so it is captured
+     * @param slot The slot of the side
+     */
+    private void capture(final int slot)
+    {
+        occupancy.capture(store.getX(slot), store.getY(slot), store.getWidth(slot), store.getHeight(slot));
+    }
+    
+    /**
+     * Update the progress towards the goal
+     */
+    private void updateProgress()
+    {
+        final long totalArea = occupancy.getTotalArea();
+        
+        //set the current progress
+        progress = (totalArea > 0) ? ((double)(totalArea - occupancy.getRemainingArea()) / totalArea) : 0;
+    }
+    
+    /**
+     * Recompute the remaining area from every boundary and make sure it matches the running total.
+     * This is only used for debugging.
+     */
+    private void checkArea()
+    {
+        //cells larger than 1 pixel are an estimate
+        if (!occupancy.isExact())
+            return;
+        
+        long area = 0;
+        
+        for (int i = 0; i < store.size(); i++)
+        {
+            area += store.getArea(store.getSlot(i));
+        }
+        
+        if (area != occupancy.getRemainingArea())
+            throw new IllegalStateException("Remaining area is " + occupancy.getRemainingArea() + " but the boundaries add up to " + area);
+    }
+    
+    /**
+     * Get a read only copy of the boundaries.
+     * The copy is made again every time the boundaries change, use getStore() on every update instead
+     * @return List of boundaries
+     */
     public List<Rectangle> getBoundaries()
     {
-        return this.boundaries;
+        return store.getRectangles();
     }
     
     /**
-     * Separate the current boundary Located at start position.
-     * Once the boundaries are separated they will be added to 
-     * the boundaries List IF they contain balls.
+     * Get the boundaries
+     * @return The store of all the boundaries
+     */
+    public BoundaryStore getStore()
+    {
+        return this.store;
+    }
+    
+    /**
+     * Get the boundary containing the location
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The slot of the boundary, BoundaryStore.NONE if the location has been captured or is off the board
+     */
+    public int getBoundary(final int x, final int y)
+    {
+        return tree.getBoundary(x, y);
+    }
+    
+    /**
+     * Get the boundary containing the location
+     * @param location The location
+     * @return The slot of the boundary, BoundaryStore.NONE if the location has been captured or is off the board
+     */
+    public int getBoundary(final Point location)
+    {
+        return getBoundary(location.x, location.y);
+    }
+    
+    /**
+     * Get the boundary that the entire rectangle is inside
+     * @param rectangle The rectangle (ball)
+     * @return The slot of the boundary, BoundaryStore.NONE if the rectangle is not entirely inside a boundary
+     */
+    public int getBoundary(final Rectangle rectangle)
+    {
+        return getBoundary(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+    }
+        
+    /**
+     * Get the boundary that the entire area is inside
+     * @param x x-coordinate of the area (ball)
+     * @param y y-coordinate of the area (ball)
+     * @param width width of the area (ball)
+     * @param height height of the area (ball)
+     * @return The slot of the boundary, BoundaryStore.NONE if the area is not entirely inside a boundary
+     */
+    public int getBoundary(final double x, final double y, final double width, final double height)
+    {
+        final int slot = getBoundary((int)Math.floor(x), (int)Math.floor(y));
+        
+        if (slot == BoundaryStore.NONE || !store.contains(slot, x, y, width, height))
+            return BoundaryStore.NONE;
+        
+        return slot;
+    }
+    
+    /**
+     * Apply several splits at once, for example when more than 1 capture finishes on the same update.
+     * The splits are applied in order so a later split can separate a side created by an earlier one.
      * 
-     * @param start The start position
-     * @param vertical Are you capturing vertically
-     * @param balls The List of balls
+     * @param splits The List of splits
+     * @param ownership The boundary each ball is inside
      */
-    public void setBoundaries(final Point start, final boolean vertical, final List<Ball> balls)
+    public void setBoundaries(final List<Split> splits, final BallOwnership ownership)
     {
-        for (int i=0; i < boundaries.size(); i++)
+        for (int i = 0; i < splits.size(); i++)
         {
-            //we found the boundary we want to split
-            if (boundaries.get(i).contains(start))
+            split(splits.get(i), ownership);
+        }
+        
+        //make sure the running total is still correct
+        if (Shared.DEBUG)
+            checkArea();
+    }
+    
+    /**
+     * Separate the current boundary Located at the split position.
+     * Once the boundary is separated each side will be added to
+     * the boundaries List IF it contains balls.
+     *
+     * @param split The location of the split, the number of balls on each side will be set
+     * @param ownership The boundary each ball is inside
+     * @return true if a boundary was found at the location and split, false otherwise
+     */
+    public boolean setBoundaries(final Split split, final BallOwnership ownership)
+    {
+        split(split, ownership);
+        
+        //make sure the running total is still correct
+        if (Shared.DEBUG)
+            checkArea();
+        
+        return split.isApplied();
+    }
+    
+    private void split(final Split split, final BallOwnership ownership)
+    {
+        //find the boundary containing the start position
+        final int slot = tree.getBoundary(split.getX(), split.getY());
+        
+        //the start position wasn't inside a boundary
+        if (slot == BoundaryStore.NONE)
+        {
+            split.setResult(false, 0, 0);
+            return;
+        }
+        
+        //the split boundary (including the outline) needs to be drawn again
+        addDamage(store.getX(slot), store.getY(slot), store.getWidth(slot) + 1, store.getHeight(slot) + 1);
+        
+        //only the balls in the split boundary need to be moved, remove them before the slot is reused
+        final int count = ownership.remove(slot);
+        
+        //the location of every ball
+        final BallEngine balls = ownership.getEngine();
+        
+        //split the boundary into the left/top and right/bottom side
+        tree.split(split.getX(), split.getY(), split.isVertical());
+        
+        final int first = tree.getFirst();
+        final int second = tree.getSecond();
+        
+        //the coordinate where the boundary was split
+        final double location = split.isVertical() ? split.getX() : split.getY();
+        
+        int countFirst = 0, countSecond = 0;
+        
+        //each ball goes to the side its center is in
+        for (int i = 0; i < count; i++)
+        {
+            final int ball = ownership.getRemoved(i);
+            
+            final double center = split.isVertical() ? balls.getCenterX(ball) : balls.getCenterY(ball);
+            
+            if (center < location)
             {
-                Rectangle tmp = boundaries.get(i);
-                Rectangle tmpSide;
-                
-                //split left and right
-                if (vertical)
-                {
-                    //left
-                    tmpSide = new Rectangle();
-                    tmpSide.x = tmp.x;
-                    tmpSide.y = tmp.y;
-                    tmpSide.width = start.x - tmp.x;
-                    tmpSide.height = tmp.height;
-                    
-                    //check if any balls are inside this boundary
-                    for (Ball ball : balls)
-                    {
-                        //if boundary is inside we will keep it
-                        if (tmpSide.contains(ball.getRectangle()))
-                        {
-                            boundaries.add(tmpSide);
-                            break;
-                        }
-                    }
-                    
-                    //right
-                    tmpSide = new Rectangle();
-                    tmpSide.x = start.x;
-                    tmpSide.y = tmp.y;
-                    tmpSide.width = tmp.x + tmp.width - start.x;
-                    tmpSide.height = tmp.height;
-                    
-                    //check if any balls are inside this boundary
-                    for (Ball ball : balls)
-                    {
-                        //if boundary is inside we will keep it
-                        if (tmpSide.contains(ball.getRectangle()))
-                        {
-                            boundaries.add(tmpSide);
-                            break;
-                        }
-                    }
-                }
-                else
-                {
-                    //top
-                    tmpSide = new Rectangle();
-                    tmpSide.x = tmp.x;
-                    tmpSide.y = tmp.y;
-                    tmpSide.width = tmp.width;
-                    tmpSide.height = start.y - tmp.y;
-                    
-                    //check if any balls are inside this boundary
-                    for (Ball ball : balls)
-                    {
-                        //if boundary is inside we will keep it
-                        if (tmpSide.contains(ball.getRectangle()))
-                        {
-                            boundaries.add(tmpSide);
-                            break;
-                        }
-                    }
-                    
-                    //bottom
-                    tmpSide = new Rectangle();
-                    tmpSide.x = tmp.x;
-                    tmpSide.y = start.y;
-                    tmpSide.width = tmp.width;
-                    tmpSide.height = tmp.y + tmp.height - start.y;
-                    
-                    //check if any balls are inside this boundary
-                    for (Ball ball : balls)
-                    {
-                        //if boundary is inside we will keep it
-                        if (tmpSide.contains(ball.getRectangle()))
-                        {
-                            boundaries.add(tmpSide);
-                            break;
-                        }
-                    }
-                }
-                
-                //remove the boundary from the List
-                boundaries.remove(i);
-                
-                break;
+                ownership.set(ball, first);
+                countFirst++;
             }
+            else
+            {
+                ownership.set(ball, second);
+                countSecond++;
+            }
+        }
+        
+        //if there are no balls inside the side is captured
+        if (countFirst == 0)
+        {
+            capture(first);
+            tree.close(true);
         }
+        
+        if (countSecond == 0)
+        {
+            capture(second);
+            tree.close(false);
+        }
+        
+        updateProgress();
+        
+        split.setResult(true, countFirst, countSecond);
     }
     
     /**
      * Start a new board with the intial size to be the parameter screen
      * @param screen The size of the original container
      * @param goal Percentage of the board we need in order to complete
-     * @param balls The List of balls so we can ensure the goal isn't too high
+     * @param balls The balls so we can ensure the goal isn't too high
      */
-    public void reset(final Rectangle screen, final List<Ball> balls) throws Exception
+    public void reset(final Rectangle screen, final BallEngine balls) throws Exception
     {
-        if (balls == null || balls.size() < 1)
+        if (balls == null || balls.getCount() < 1)
             throw new Exception("There needs to at least be 1 ball set in order to calculate consumed area");
         
         //set goal
         this.goal = START_GOAL;
         
-        //reset the progress as well
-        progress = 0;
+        //add the entire board window as the inital boundary
+        tree.reset(screen.x, screen.y, screen.width, screen.height);
         
-        //remove all existing elements
-        boundaries.clear();
+        //the entire board is remaining so there is no progress
+        occupancy.reset(screen.x, screen.y, screen.width, screen.height);
+        updateProgress();
         
-        //add the entire board window as the inital boundary
-        boundaries.add(screen);
+        //set location and dimensions
+        this.x = screen.x;
+        this.y = screen.y;
+        this.width = screen.width;
+        this.height = screen.height;
         
-        //set location and dimensions for the background image
-        super.setLocation(screen.x, screen.y);
-        super.setDimensions(screen.width, screen.height);
+        //the entire board (including the outline) changed
+        damaged = false;
+        addDamage(x, y, width + 1, height + 1);
         
         //area of the entire board
-        final double area = getWidth() * getHeight();
+        final double area = (double)getWidth() * getHeight();
         
         //area covered by the balls that we will never be able to capture
         double consumedArea = 0;
         
         //get the total area that we can't capture
-        for (Ball ball : balls)
+        for (int i = 0; i < balls.getCount(); i++)
         {
-            consumedArea += (ball.getWidth() * ball.getHeight());
+            consumedArea += (balls.getWidth(i) * balls.getHeight(i));
         }
         
         //the percentage of space that is open
@@ -233,46 +385,42 @@ public final class Board extends Sprite
     }
 
     /**
-     * Draw the background image and then the boundaries on top
-     * @param graphics 
+     * Mark an area of the board as changed
      */
-    public void render(final Graphics graphics)
+    private void addDamage(final int x, final int y, final int width, final int height)
     {
-        final double x = super.getX();
-        final double y = super.getY();
-        final double w = super.getWidth();
-        final double h = super.getHeight();
-        
-        int height = super.getImage().getHeight(null);
-        
-        if (height < super.getHeight())
+        if (!damaged)
         {
-            super.setY(y + (getHeight() / 2) - (super.getImage().getHeight(null) / 2));
-            super.setWidth(getImage().getWidth(null));
-            super.setHeight(getImage().getHeight(null));
+            damageX1 = x;
+            damageY1 = y;
+            damageX2 = x + width;
+            damageY2 = y + height;
+            damaged = true;
         }
+        else
+        {
+            damageX1 = Math.min(damageX1, x);
+            damageY1 = Math.min(damageY1, y);
+            damageX2 = Math.max(damageX2, x + width);
+            damageY2 = Math.max(damageY2, y + height);
+        }
+    }
+    
+    /**
+     * Take the area of the board that changed since the last time it was taken.
+     * The BoardRenderer uses this to only draw the area that changed again.
+     * @param area Set to the area that changed, board coordinates
+     * @return true if an area changed, false if nothing changed and the area wasn't set
+     */
+    public boolean takeDamage(final Rectangle area)
+    {
+        if (!damaged)
+            return false;
         
-        //draw background image
-        super.draw(graphics);
+        area.setBounds(damageX1, damageY1, damageX2 - damageX1, damageY2 - damageY1);
         
-        //reset location and dimensions
-        super.setLocation(x, y);
-        super.setDimensions(w, h);
+        damaged = false;
         
-        //if we haven't reached our goal yet, draw the boundaries
-        if (!hasGoal())
-        {
-            //fill each boundary
-            for (Rectangle boundary : boundaries)
-            {
-                //cover up boundaries in black
-                graphics.setColor(Color.BLACK);
-                graphics.fillRect(boundary.x, boundary.y, boundary.width, boundary.height);
-
-                //outline in white
-                graphics.setColor(Color.WHITE);
-                graphics.drawRect(boundary.x, boundary.y, boundary.width, boundary.height);
-            }
-        }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,373 @@
+package com.gamesbykevin.jezzball.board;
+
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the BoundaryStore against the List of Rectangle the board used to keep,
+ * and the OccupancyGrid against the RectangleOccupancy on large arenas.
+ * Both are given the same work from the same seed and the fastest of a few rounds is printed,
+ * the results of both are printed as well to show they did the same work.
+ * @author GOD
+ */
+public final class BoardBenchmark
+{
+    //the number of times each workload is run, the fastest is printed
+    private static final int ROUNDS = 5;
+    
+    //the boundaries are a square grid of this many regions
+    private static final int REGIONS = 10000;
+    
+    //the size of each region in the grid
+    private static final int REGION_SIZE = 16;
+    
+    //the number of times the area of every boundary is added up
+    private static final int AREA_PASSES = 1000;
+    
+    //the number of locations to find the boundary of
+    private static final int LOOKUPS = 1000;
+    
+    //the number of boundaries removed and split in 2
+    private static final int SPLITS = 5000;
+    
+    //the size of the arenas for the occupancy
+    private static final int[] ARENA_SIZES = {2048, 8192};
+    
+    //the cell sizes of the grid for the occupancy
+    private static final int[] CELL_SIZES = {1, 4};
+    
+    //the arena is captured as a square grid with this many tiles on each side
+    private static final int TILES = 64;
+    
+    /**
+     * Something to measure
+     */
+    private static abstract class Workload
+    {
+        //a value from the results of the last round, so the work can't be skipped and both can be compared
+        private long result;
+        
+        /**
+         * Do the work once
+         * @return A value from the results
+         */
+        abstract long run();
+    }
+    
+    /**
+     * Run the workload a few times
+     * @param workload The work to measure
+     * @return The fastest time in nanoseconds
+     */
+    private static long measure(final Workload workload)
+    {
+        long best = Long.MAX_VALUE;
+        
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            final long start = System.nanoTime();
+            
+            workload.result = workload.run();
+            
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Measure both workloads and print the results
+     * @param name What the workloads do
+     * @param firstName The name of the first workload
+     * @param first The first workload
+     * @param secondName The name of the second workload
+     * @param second The second workload
+     */
+    private static void compare(final String name, final String firstName, final Workload first, final String secondName, final Workload second)
+    {
+        final long firstTime = measure(first);
+        final long secondTime = measure(second);
+        
+        System.out.printf("%s: %s %.2f ms, %s %.2f ms, %s takes %.2fx the time, results %d and %d%n",
+            name, firstName, firstTime / 1e6, secondName, secondTime / 1e6, firstName, (double)firstTime / secondTime, first.result, second.result);
+    }
+    
+    /**
+     * Measure the boundary store against a List of Rectangle with REGIONS boundaries and print the results
+     * @param seed The seed for the locations looked up and the boundaries split
+     */
+    public static void boundaries(final long seed)
+    {
+        final BoundaryStore store = createStore();
+        final List<Rectangle> list = createList();
+        
+        //the locations to look up, the same for both
+        final SeededRandom random = new SeededRandom(seed);
+        final int side = getSide() * REGION_SIZE;
+        final int[] lookups = new int[LOOKUPS * 2];
+        
+        for (int i = 0; i < lookups.length; i++)
+        {
+            lookups[i] = random.nextInt(side);
+        }
+        
+        System.out.println("boundaries: " + store.size() + " regions of " + REGION_SIZE + "x" + REGION_SIZE + ", best of " + ROUNDS + " rounds");
+        
+        compare("area of every boundary x " + AREA_PASSES, "store", new Workload()
+        {
+            @Override
+            long run()
+            {
+                long total = 0;
+                
+                for (int pass = 0; pass < AREA_PASSES; pass++)
+                {
+                    for (int i = 0; i < store.size(); i++)
+                    {
+                        total += store.getArea(store.getSlot(i));
+                    }
+                }
+                
+                return total;
+            }
+        }, "list", new Workload()
+        {
+            @Override
+            long run()
+            {
+                long total = 0;
+                
+                for (int pass = 0; pass < AREA_PASSES; pass++)
+                {
+                    for (Rectangle rectangle : list)
+                    {
+                        total += (long)rectangle.width * rectangle.height;
+                    }
+                }
+                
+                return total;
+            }
+        });
+        
+        compare("boundary of " + LOOKUPS + " locations", "store", new Workload()
+        {
+            @Override
+            long run()
+            {
+                long total = 0;
+                
+                for (int i = 0; i < lookups.length; i += 2)
+                {
+                    for (int index = 0; index < store.size(); index++)
+                    {
+                        final int slot = store.getSlot(index);
+                        
+                        if (store.contains(slot, lookups[i], lookups[i + 1]))
+                        {
+                            total += store.getArea(slot);
+                            break;
+                        }
+                    }
+                }
+                
+                return total;
+            }
+        }, "list", new Workload()
+        {
+            @Override
+            long run()
+            {
+                long total = 0;
+                
+                for (int i = 0; i < lookups.length; i += 2)
+                {
+                    for (Rectangle rectangle : list)
+                    {
+                        if (rectangle.contains(lookups[i], lookups[i + 1]))
+                        {
+                            total += (long)rectangle.width * rectangle.height;
+                            break;
+                        }
+                    }
+                }
+                
+                return total;
+            }
+        });
+        
+        //the boundaries are created again each round since splitting changes them
+        compare("create and split " + SPLITS + " boundaries", "store", new Workload()
+        {
+            @Override
+            long run()
+            {
+                final BoundaryStore store = createStore();
+                final SeededRandom random = new SeededRandom(seed);
+                
+                for (int i = 0; i < SPLITS; i++)
+                {
+                    final int slot = store.getSlot(random.nextInt(store.size()));
+                    
+                    final int x = store.getX(slot), y = store.getY(slot);
+                    final int width = store.getWidth(slot), height = store.getHeight(slot);
+                    
+                    store.remove(slot);
+                    
+                    if (width >= height)
+                    {
+                        store.add(x, y, width / 2, height);
+                        store.add(x + width / 2, y, width - width / 2, height);
+                    }
+                    else
+                    {
+                        store.add(x, y, width, height / 2);
+                        store.add(x, y + height / 2, width, height - height / 2);
+                    }
+                }
+                
+                return store.size();
+            }
+        }, "list", new Workload()
+        {
+            @Override
+            long run()
+            {
+                final List<Rectangle> list = createList();
+                final SeededRandom random = new SeededRandom(seed);
+                
+                for (int i = 0; i < SPLITS; i++)
+                {
+                    final Rectangle rectangle = list.remove(random.nextInt(list.size()));
+                    
+                    final int x = rectangle.x, y = rectangle.y;
+                    final int width = rectangle.width, height = rectangle.height;
+                    
+                    if (width >= height)
+                    {
+                        list.add(new Rectangle(x, y, width / 2, height));
+                        list.add(new Rectangle(x + width / 2, y, width - width / 2, height));
+                    }
+                    else
+                    {
+                        list.add(new Rectangle(x, y, width, height / 2));
+                        list.add(new Rectangle(x, y + height / 2, width, height - height / 2));
+                    }
+                }
+                
+                return list.size();
+            }
+        });
+    }
+    
+    /**
+     * Measure the occupancy grid against the rectangle occupancy and print the results.
+     * The whole arena is captured a tile at a time in a random order and the remaining area is read after each capture.
+     * @param seed The seed for the order the tiles are captured in
+     */
+    public static void occupancy(final long seed)
+    {
+        //the order to capture the tiles in, the same for every arena
+        final SeededRandom random = new SeededRandom(seed);
+        final int[] order = new int[TILES * TILES];
+        
+        for (int i = 0; i < order.length; i++)
+        {
+            final int j = random.nextInt(i + 1);
+            
+            order[i] = order[j];
+            order[j] = i;
+        }
+        
+        for (int size : ARENA_SIZES)
+        {
+            System.out.println("occupancy: arena " + size + "x" + size + ", " + order.length + " captures of " + (size / TILES) + "x" + (size / TILES) + ", best of " + ROUNDS + " rounds");
+            
+            for (int cellSize : CELL_SIZES)
+            {
+                compare("capture the arena", "grid " + cellSize + "px", capture(new OccupancyGrid(cellSize), size, order), "rectangles", capture(new RectangleOccupancy(), size, order));
+            }
+        }
+    }
+    
+    /**
+     * Get the work of capturing the whole arena
+     * @param occupancy The occupancy to capture the arena with
+     * @param size The width and height of the arena
+     * @param order The order to capture the tiles in
+     * @return Workload that returns the remaining area after each capture added up
+     */
+    private static Workload capture(final Occupancy occupancy, final int size, final int[] order)
+    {
+        return new Workload()
+        {
+            @Override
+            long run()
+            {
+                final int tile = size / TILES;
+                
+                occupancy.reset(0, 0, size, size);
+                
+                long total = 0;
+                
+                for (int i = 0; i < order.length; i++)
+                {
+                    occupancy.capture((order[i] % TILES) * tile, (order[i] / TILES) * tile, tile, tile);
+                    
+                    total += occupancy.getRemainingArea();
+                }
+                
+                return total;
+            }
+        };
+    }
+    
+    /**
+     * Get the number of regions on each side of the grid
+     * @return int
+     */
+    private static int getSide()
+    {
+        return (int)Math.sqrt(REGIONS);
+    }
+    
+    /**
+     * Create a store with a grid of REGIONS boundaries
+     * @return BoundaryStore
+     */
+    private static BoundaryStore createStore()
+    {
+        final BoundaryStore store = new BoundaryStore();
+        
+        for (int row = 0; row < getSide(); row++)
+        {
+            for (int column = 0; column < getSide(); column++)
+            {
+                store.add(column * REGION_SIZE, row * REGION_SIZE, REGION_SIZE, REGION_SIZE);
+            }
+        }
+        
+        return store;
+    }
+    
+    /**
+     * Create a List with the same boundaries as createStore()
+     * @return List of Rectangle
+     */
+    private static List<Rectangle> createList()
+    {
+        final List<Rectangle> list = new ArrayList<>();
+        
+        for (int row = 0; row < getSide(); row++)
+        {
+            for (int column = 0; column < getSide(); column++)
+            {
+                list.add(new Rectangle(column * REGION_SIZE, row * REGION_SIZE, REGION_SIZE, REGION_SIZE));
+            }
+        }
+        
+        return list;
+    }
+}
\ No newline at end of file
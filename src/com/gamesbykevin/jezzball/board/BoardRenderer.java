@@ -0,0 +1,221 @@
+package com.gamesbykevin.jezzball.board;
+
+import com.gamesbykevin.jezzball.manager.Snapshot;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the board background with the boundaries on top from a snapshot.
+ * The boundaries are drawn onto a layer that is only changed where the board changed.
+ * @author GOD
+ */
+public final class BoardRenderer
+{
+    //the background image
+    private Image image;
+    
+    //the background image sized to the board
+    private BufferedImage background;
+    
+    //the background with the boundaries covered, this is only changed when the boundaries change
+    private BufferedImage layer;
+    
+    //does the layer need to be created again from scratch
+    private boolean rebuild = true;
+    
+    //the size of the layer compared to the board, large boards are drawn scaled down
+    private double scale = 1.0;
+    
+    /**
+     * Set the background image, the layer will be created again
+     * @param image The background image
+     */
+    public void setImage(final Image image)
+    {
+        this.image = image;
+        
+        rebuild = true;
+    }
+    
+    public Image getImage()
+    {
+        return this.image;
+    }
+    
+    /**
+     * Set the size of the layer compared to the board, the layer will be created again.
+     * Large boards should be scaled down so the layer isn't larger than the area it is drawn in.
+     * @param scale The scale from 0 (exclusive) to 1
+     */
+    public void setScale(final double scale)
+    {
+        if (scale <= 0 || scale > 1)
+            throw new IllegalArgumentException("The scale has to be greater than 0 and no more than 1, scale = " + scale);
+        
+        this.scale = scale;
+        
+        rebuild = true;
+    }
+    
+    public double getScale()
+    {
+        return this.scale;
+    }
+    
+    /**
+     * Convert the board coordinate to a pixel in the layer, rounded down
+     */
+    private int toLayer(final double value)
+    {
+        return (int)Math.floor(value * scale);
+    }
+    
+    /**
+     * Convert the board coordinate to a pixel in the layer, rounded up
+     */
+    private int toLayerCeil(final double value)
+    {
+        return (int)Math.ceil(value * scale);
+    }
+    
+    /**
+     * Create the background image sized to the scaled board.
+     * If the image is shorter than the board it is centered vertically at its own size,
+     * otherwise it is stretched to fill the board.
+     */
+    private void createBackground(final Rectangle board)
+    {
+        final int w = Math.max(1, toLayerCeil(board.width));
+        final int h = Math.max(1, toLayerCeil(board.height));
+        
+        if (background == null || background.getWidth() != w || background.getHeight() != h)
+            background = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        
+        final Graphics2D g = background.createGraphics();
+        
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, w, h);
+        
+        if (image != null)
+        {
+            final int height = toLayer(image.getHeight(null));
+            
+            if (height < h)
+            {
+                g.drawImage(image, 0, (h / 2) - (height / 2), toLayer(image.getWidth(null)), height, null);
+            }
+            else
+            {
+                g.drawImage(image, 0, 0, w, h, null);
+            }
+        }
+        
+        g.dispose();
+    }
+    
+    /**
+     * Draw the background and the boundaries inside the area onto the layer
+     * @param board The location and dimensions of the board
+     * @param store The boundaries on the board
+     * @param x x-coordinate of the area (relative to the board)
+     * @param y y-coordinate of the area (relative to the board)
+     */
+    private void drawLayer(final Rectangle board, final BoundaryStore store, final int x, final int y, final int width, final int height)
+    {
+        final Graphics2D g = layer.createGraphics();
+        
+        //only draw inside the area that changed, the clip is in layer pixels
+        g.setClip(toLayer(x), toLayer(y), toLayerCeil(x + width) - toLayer(x), toLayerCeil(y + height) - toLayer(y));
+        
+        //show the background
+        g.drawImage(background, 0, 0, null);
+        
+        //the boundaries are in screen coordinates
+        g.scale(scale, scale);
+        g.translate(-board.x, -board.y);
+        
+        final int screenX = x + board.x;
+        final int screenY = y + board.y;
+        
+        for (int i = 0; i < store.size(); i++)
+        {
+            final int slot = store.getSlot(i);
+            
+            //skip boundaries (including their outline) that are not inside the area
+            if (store.getX(slot) > screenX + width || store.getX(slot) + store.getWidth(slot) < screenX ||
+                store.getY(slot) > screenY + height || store.getY(slot) + store.getHeight(slot) < screenY)
+                continue;
+            
+            //cover up boundaries in black
+            g.setColor(Color.BLACK);
+            g.fillRect(store.getX(slot), store.getY(slot), store.getWidth(slot), store.getHeight(slot));
+            
+            //outline in white
+            g.setColor(Color.WHITE);
+            g.drawRect(store.getX(slot), store.getY(slot), store.getWidth(slot), store.getHeight(slot));
+        }
+        
+        g.dispose();
+    }
+    
+    /**
+     * Make sure the layer matches the current boundaries.
+     * The entire layer is only drawn when the board size or background changes,
+     * otherwise only the area of the board that changed is drawn again.
+     */
+    private void updateLayer(final Snapshot snapshot)
+    {
+        final Rectangle board = snapshot.getBoard();
+        
+        //the layer has to match the size of the board
+        if (background == null || background.getWidth() != Math.max(1, toLayerCeil(board.width)) || background.getHeight() != Math.max(1, toLayerCeil(board.height)))
+            rebuild = true;
+        
+        //a new level has a new background
+        if (snapshot.getBackground() != image)
+            setImage(snapshot.getBackground());
+        
+        if (rebuild)
+        {
+            createBackground(board);
+            
+            if (layer == null || layer.getWidth() != background.getWidth() || layer.getHeight() != background.getHeight())
+                layer = new BufferedImage(background.getWidth(), background.getHeight(), BufferedImage.TYPE_INT_RGB);
+            
+            drawLayer(board, snapshot.getStore(), 0, 0, board.width, board.height);
+            
+            rebuild = false;
+        }
+        else if (snapshot.hasDamage())
+        {
+            final Rectangle damage = snapshot.getDamage();
+            
+            drawLayer(board, snapshot.getStore(), damage.x - board.x, damage.y - board.y, damage.width, damage.height);
+        }
+    }
+    
+    /**
+     * Draw the background image with the boundaries on top.
+     * Once the goal is reached only the background is drawn.
+     * @param graphics Graphics object in board coordinates
+     * @param snapshot The board to draw
+     */
+    public void render(final Graphics graphics, final Snapshot snapshot)
+    {
+        final Rectangle board = snapshot.getBoard();
+        
+        //nothing to draw yet
+        if (board.width < 1 || board.height < 1)
+            return;
+        
+        updateLayer(snapshot);
+        
+        //if we haven't reached our goal yet, draw the boundaries, the layer is stretched back to the size of the board
+        graphics.drawImage(snapshot.hasGoal() ? background : layer, board.x, board.y, board.width, board.height, null);
+    }
+}
\ No newline at end of file
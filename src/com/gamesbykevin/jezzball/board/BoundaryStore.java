@@ -0,0 +1,271 @@
+package com.gamesbykevin.jezzball.board;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores the boundaries as parallel arrays of x, y, width and height.
+ * Each boundary has a slot that stays the same until it is removed,
+ * removed slots are reused so the arrays only grow when every slot is in use.
+ *
+ * To go through every boundary without allocating anything:
+ * for (int i = 0; i < store.size(); i++) { final int slot = store.getSlot(i); ... }
+ *
+ * @author GOD
+ */
+public final class BoundaryStore
+{
+    //the value returned when there is no boundary
+    public static final int NONE = -1;
+    
+    //how many slots to start with
+    private static final int INITIAL_CAPACITY = 64;
+    
+    //location and dimensions of each slot
+    private int[] x, y, width, height;
+    
+    //slots that have been removed and can be reused
+    private int[] free;
+    
+    //the number of slots that can be reused
+    private int freeCount;
+    
+    //the number of slots that have ever been used
+    private int used;
+    
+    //the slots in use, so we can go through them without checking every slot
+    private int[] active;
+    
+    //the index of each slot in the active array
+    private int[] position;
+    
+    //the number of slots in use
+    private int count;
+    
+    //read only copy of the boundaries for code that still needs a List of Rectangle
+    private List<Rectangle> view;
+    
+    public BoundaryStore()
+    {
+        this.x        = new int[INITIAL_CAPACITY];
+        this.y        = new int[INITIAL_CAPACITY];
+        this.width    = new int[INITIAL_CAPACITY];
+        this.height   = new int[INITIAL_CAPACITY];
+        this.free     = new int[INITIAL_CAPACITY];
+        this.active   = new int[INITIAL_CAPACITY];
+        this.position = new int[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Copy every boundary, the slots stay the same.
+     * The arrays are only created again if they are too small.
+     * @param store The boundaries to copy
+     */
+    public void set(final BoundaryStore store)
+    {
+        if (x.length < store.used)
+        {
+            x        = new int[store.x.length];
+            y        = new int[store.x.length];
+            width    = new int[store.x.length];
+            height   = new int[store.x.length];
+            free     = new int[store.x.length];
+            active   = new int[store.x.length];
+            position = new int[store.x.length];
+        }
+        
+        System.arraycopy(store.x, 0, x, 0, store.used);
+        System.arraycopy(store.y, 0, y, 0, store.used);
+        System.arraycopy(store.width, 0, width, 0, store.used);
+        System.arraycopy(store.height, 0, height, 0, store.used);
+        System.arraycopy(store.position, 0, position, 0, store.used);
+        System.arraycopy(store.free, 0, free, 0, store.freeCount);
+        System.arraycopy(store.active, 0, active, 0, store.count);
+        
+        used = store.used;
+        freeCount = store.freeCount;
+        count = store.count;
+        view = null;
+    }
+    
+    /**
+     * Remove every boundary
+     */
+    void clear()
+    {
+        freeCount = 0;
+        used = 0;
+        count = 0;
+        view = null;
+    }
+    
+    /**
+     * Add a boundary
+     * @return The slot of the new boundary
+     */
+    int add(final int x, final int y, final int width, final int height)
+    {
+        final int slot;
+        
+        if (freeCount > 0)
+        {
+            slot = free[--freeCount];
+        }
+        else
+        {
+            if (used == this.x.length)
+                grow();
+            
+            slot = used++;
+        }
+        
+        this.x[slot]      = x;
+        this.y[slot]      = y;
+        this.width[slot]  = width;
+        this.height[slot] = height;
+        
+        position[slot] = count;
+        active[count++] = slot;
+        
+        view = null;
+        
+        return slot;
+    }
+    
+    /**
+     * Remove the boundary so the slot can be reused
+     * @param slot The slot of the boundary
+     */
+    void remove(final int slot)
+    {
+        //move the last active slot into this position
+        final int index = position[slot];
+        final int last = active[--count];
+        
+        active[index] = last;
+        position[last] = index;
+        
+        position[slot] = NONE;
+        free[freeCount++] = slot;
+        
+        view = null;
+    }
+    
+    /**
+     * Double the size of every array
+     */
+    private void grow()
+    {
+        final int capacity = x.length * 2;
+        
+        x        = copy(x, capacity);
+        y        = copy(y, capacity);
+        width    = copy(width, capacity);
+        height   = copy(height, capacity);
+        free     = copy(free, capacity);
+        active   = copy(active, capacity);
+        position = copy(position, capacity);
+    }
+    
+    private static int[] copy(final int[] array, final int capacity)
+    {
+        final int[] tmp = new int[capacity];
+        System.arraycopy(array, 0, tmp, 0, array.length);
+        return tmp;
+    }
+    
+    /**
+     * Get the number of boundaries
+     * @return int
+     */
+    public int size()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get the slot of the boundary at the index
+     * @param index The index from 0 to size() - 1
+     * @return The slot
+     */
+    public int getSlot(final int index)
+    {
+        return active[index];
+    }
+    
+    public int getX(final int slot)
+    {
+        return x[slot];
+    }
+    
+    public int getY(final int slot)
+    {
+        return y[slot];
+    }
+    
+    public int getWidth(final int slot)
+    {
+        return width[slot];
+    }
+    
+    public int getHeight(final int slot)
+    {
+        return height[slot];
+    }
+    
+    /**
+     * Get the area of the boundary
+     * @param slot The slot of the boundary
+     * @return long
+     */
+    public long getArea(final int slot)
+    {
+        return (long)width[slot] * height[slot];
+    }
+    
+    /**
+     * Is the location inside the boundary, same as Rectangle.contains(x, y)
+     * @param slot The slot of the boundary
+     * @return boolean
+     */
+    public boolean contains(final int slot, final int x, final int y)
+    {
+        return (width[slot] > 0 && height[slot] > 0 && x >= this.x[slot] && y >= this.y[slot] && x < this.x[slot] + width[slot] && y < this.y[slot] + height[slot]);
+    }
+    
+    /**
+     * Is the entire area inside the boundary
+     * @param slot The slot of the boundary
+     * @return boolean
+     */
+    public boolean contains(final int slot, final double x, final double y, final double width, final double height)
+    {
+        return (this.width[slot] > 0 && this.height[slot] > 0 && x >= this.x[slot] && y >= this.y[slot] &&
+            x + width <= this.x[slot] + this.width[slot] && y + height <= this.y[slot] + this.height[slot]);
+    }
+    
+    /**
+     * Get a read only List of the boundaries.
+     * The List is created again after the boundaries change so this should not be used on every update.
+     * @return List of Rectangle
+     */
+    public List<Rectangle> getRectangles()
+    {
+        if (view == null)
+        {
+            final List<Rectangle> tmp = new ArrayList<>(count);
+            
+            for (int i = 0; i < count; i++)
+            {
+                final int slot = active[i];
+                tmp.add(new Rectangle(x[slot], y[slot], width[slot], height[slot]));
+            }
+            
+            view = Collections.unmodifiableList(tmp);
+        }
+        
+        return view;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.gamesbykevin.jezzball.board;
+
+/**
+ * Every split cuts one boundary into two so the board forms a kd-tree.
+ * This tree records each split so the boundary containing a point can be
+ * found by walking down from the root instead of checking every boundary.
+ * The open leaves are the boundaries and are kept in the BoundaryStore.
+ * The nodes are kept when the board is reset and used again so splitting doesn't create garbage.
+ *
+ * @author GOD
+ */
+final class BoundaryTree
+{
+    /**
+     * A node in the tree, leaf nodes are the boundaries (open) or captured area (closed)
+     */
+    private static final class Node
+    {
+        //the area this node covers
+        private int x, y, width, height;
+        
+        //the children once split, first is left/top and second is right/bottom
+        private Node first, second;
+        
+        //is the split vertical (split on x) or horizontal (split on y)
+        private boolean vertical;
+        
+        //the coordinate of the split
+        private int split;
+        
+        //the slot in the store if this leaf is still a boundary that hasn't been captured
+        private int slot = BoundaryStore.NONE;
+        
+        /**
+         * Set the area of the node, the node becomes an open leaf
+         */
+        private Node set(final int x, final int y, final int width, final int height)
+        {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.first = null;
+            this.second = null;
+            this.slot = BoundaryStore.NONE;
+            
+            return this;
+        }
+        
+        private boolean isLeaf()
+        {
+            return (first == null);
+        }
+        
+        private boolean contains(final int x, final int y)
+        {
+            return (width > 0 && height > 0 && x >= this.x && y >= this.y && x < this.x + width && y < this.y + height);
+        }
+    }
+    
+    //the root of the tree covering the entire board
+    private Node root;
+    
+    //the node that was split last
+    private Node last;
+    
+    //where the open leaves are stored
+    private final BoundaryStore store;
+    
+    //every node created, the first used nodes are in the tree
+    private Node[] nodes = new Node[0];
+    
+    //the number of nodes in the tree
+    private int used = 0;
+    
+    BoundaryTree(final BoundaryStore store)
+    {
+        this.store = store;
+    }
+    
+    /**
+     * Start over with a single boundary
+     */
+    void reset(final int x, final int y, final int width, final int height)
+    {
+        store.clear();
+        
+        used = 0;
+        
+        root = getNode(x, y, width, height);
+        last = null;
+        open(root);
+    }
+    
+    /**
+     * Find the open boundary containing the location
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The slot of the boundary, BoundaryStore.NONE if the location is not inside an open boundary
+     */
+    int getBoundary(final int x, final int y)
+    {
+        final Node node = getLeaf(x, y);
+        
+        return (node != null) ? node.slot : BoundaryStore.NONE;
+    }
+    
+    /**
+     * Split the open boundary containing the location.
+     * The existing boundary is removed and both sides are added as open boundaries.
+     *
+     * @param x x-coordinate of the split
+     * @param y y-coordinate of the split
+     * @param vertical Split on the x-coordinate (true) or the y-coordinate (false)
+     * @return true if the location was inside an open boundary and it was split, false otherwise
+     */
+    boolean split(final int x, final int y, final boolean vertical)
+    {
+        final Node node = getLeaf(x, y);
+        
+        //only open boundaries can be split
+        if (node == null || node.slot == BoundaryStore.NONE)
+            return false;
+        
+        node.vertical = vertical;
+        
+        if (vertical)
+        {
+            node.split  = x;
+            node.first  = getNode(node.x, node.y, x - node.x, node.height);
+            node.second = getNode(x, node.y, node.x + node.width - x, node.height);
+        }
+        else
+        {
+            node.split  = y;
+            node.first  = getNode(node.x, node.y, node.width, y - node.y);
+            node.second = getNode(node.x, y, node.width, node.y + node.height - y);
+        }
+        
+        //the split boundary is no longer a leaf
+        close(node);
+        
+        open(node.first);
+        open(node.second);
+        
+        //remember the split so the sides can be closed
+        last = node;
+        
+        return true;
+    }
+    
+    /**
+     * Get the first (left/top) side of the last split
+     * @return The slot of the side, BoundaryStore.NONE if it has been closed
+     */
+    int getFirst()
+    {
+        return last.first.slot;
+    }
+    
+    /**
+     * Get the second (right/bottom) side of the last split
+     * @return The slot of the side, BoundaryStore.NONE if it has been closed
+     */
+    int getSecond()
+    {
+        return last.second.slot;
+    }
+    
+    /**
+     * Mark a side of the last split as captured
+     * @param first Close the first (left/top) side (true) or the second (right/bottom) side (false)
+     */
+    void close(final boolean first)
+    {
+        close(first ? last.first : last.second);
+    }
+    
+    /**
+     * Get a node that isn't in the tree, a node from a previous board is used if there is one
+     */
+    private Node getNode(final int x, final int y, final int width, final int height)
+    {
+        if (used == nodes.length)
+        {
+            final Node[] tmp = new Node[Math.max(64, used * 2)];
+            System.arraycopy(nodes, 0, tmp, 0, used);
+            nodes = tmp;
+        }
+        
+        if (nodes[used] == null)
+            nodes[used] = new Node();
+        
+        return nodes[used++].set(x, y, width, height);
+    }
+    
+    private void open(final Node node)
+    {
+        node.slot = store.add(node.x, node.y, node.width, node.height);
+    }
+    
+    private void close(final Node node)
+    {
+        if (node.slot == BoundaryStore.NONE)
+            return;
+        
+        store.remove(node.slot);
+        
+        node.slot = BoundaryStore.NONE;
+    }
+    
+    /**
+     * Walk down the tree to the leaf containing the location
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return The leaf, null if the location is not on the board
+     */
+    private Node getLeaf(final int x, final int y)
+    {
+        if (root == null || !root.contains(x, y))
+            return null;
+        
+        Node node = root;
+        
+        while (!node.isLeaf())
+        {
+            node = (node.vertical ? x < node.split : y < node.split) ? node.first : node.second;
+        }
+        
+        return node;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.gamesbykevin.jezzball.board;
+
+/**
+ * Keeps track of how much of the board has not been captured
+ * @author GOD
+ */
+interface Occupancy
+{
+    /**
+     * Start over with the entire area open
+     */
+    public void reset(final int x, final int y, final int width, final int height);
+    
+    /**
+     * The area is no longer open
+     */
+    public void capture(final int x, final int y, final int width, final int height);
+    
+    /**
+     * Get the area that has not been captured
+     * @return long
+     */
+    public long getRemainingArea();
+    
+    /**
+     * Get the area of the entire board
+     * @return long
+     */
+    public long getTotalArea();
+    
+    /**
+     * Is the remaining area exactly the same as the area of the open boundaries
+     * @return boolean
+     */
+    public boolean isExact();
+}
\ No newline at end of file
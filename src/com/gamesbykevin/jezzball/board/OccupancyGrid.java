@@ -0,0 +1,217 @@
+package com.gamesbykevin.jezzball.board;
+
+import java.util.Arrays;
+
+/**
+ * The board as a grid of cells where each open cell is 1 bit in a long[].
+ * The remaining area comes from counting the bits (Long.bitCount) so it doesn't
+ * depend on how many boundaries there are.
+ *
+ * A cell is captured when its center is inside a captured area,
+ * so the area is only exact when the cell size is 1.
+ *
+ * @author GOD
+ */
+public final class OccupancyGrid implements Occupancy
+{
+    //the number of bits in each word
+    private static final int BITS = 64;
+    
+    //the size of each cell in pixels
+    private final int cellSize;
+    
+    //location of the board
+    private int x, y;
+    
+    //dimensions of the board
+    private int width, height;
+    
+    //the number of cells
+    private int columns, rows;
+    
+    //the number of words in each row
+    private int words;
+    
+    //the open cells, row by row
+    private long[] open;
+    
+    //the number of open cells
+    private long count;
+    
+    /**
+     * Create a new grid
+     * @param cellSize The size of each cell in pixels, 1 or more
+     */
+    public OccupancyGrid(final int cellSize)
+    {
+        if (cellSize < 1)
+            throw new IllegalArgumentException("The cell size has to be at least 1, cellSize = " + cellSize);
+        
+        this.cellSize = cellSize;
+    }
+    
+    public int getCellSize()
+    {
+        return this.cellSize;
+    }
+    
+    public int getColumns()
+    {
+        return this.columns;
+    }
+    
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    @Override
+    public void reset(final int x, final int y, final int width, final int height)
+    {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.words = (columns + BITS - 1) / BITS;
+        
+        if (open == null || open.length < rows * words)
+        {
+            open = new long[rows * words];
+        }
+        
+        //every cell starts open
+        Arrays.fill(open, 0L);
+        
+        for (int row = 0; row < rows; row++)
+        {
+            setRow(row, 0, columns, true);
+        }
+        
+        count = (long)columns * rows;
+    }
+    
+    @Override
+    public void capture(final int x, final int y, final int width, final int height)
+    {
+        //the cells that have their center inside the area
+        final int column1 = Math.max(0, ceilDiv(x - this.x - (cellSize / 2), cellSize));
+        final int column2 = Math.min(columns, ceilDiv(x + width - this.x - (cellSize / 2), cellSize));
+        final int row1 = Math.max(0, ceilDiv(y - this.y - (cellSize / 2), cellSize));
+        final int row2 = Math.min(rows, ceilDiv(y + height - this.y - (cellSize / 2), cellSize));
+        
+        if (column1 >= column2 || row1 >= row2)
+            return;
+        
+        for (int row = row1; row < row2; row++)
+        {
+            count -= countRow(row, column1, column2);
+            setRow(row, column1, column2, false);
+        }
+    }
+    
+    @Override
+    public long getRemainingArea()
+    {
+        //cells on the right and bottom edge may be cut off by the board
+        return Math.min(count * cellSize * cellSize, getTotalArea());
+    }
+    
+    @Override
+    public long getTotalArea()
+    {
+        return (long)width * height;
+    }
+    
+    @Override
+    public boolean isExact()
+    {
+        return (cellSize == 1);
+    }
+    
+    /**
+     * Count every open cell from scratch
+     * @return The number of open cells
+     */
+    public long countOpen()
+    {
+        long total = 0;
+        
+        for (int i = 0; i < rows * words; i++)
+        {
+            total += Long.bitCount(open[i]);
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Is the cell open
+     * @param column The column of the cell
+     * @param row The row of the cell
+     * @return boolean
+     */
+    public boolean isOpen(final int column, final int row)
+    {
+        return (open[(row * words) + (column / BITS)] & (1L << (column % BITS))) != 0;
+    }
+    
+    /**
+     * Count the open cells in a row from column1 up to but not including column2
+     */
+    private long countRow(final int row, final int column1, final int column2)
+    {
+        long total = 0;
+        
+        for (int w = column1 / BITS; w <= (column2 - 1) / BITS; w++)
+        {
+            total += Long.bitCount(open[(row * words) + w] & mask(w, column1, column2));
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Open or close the cells in a row from column1 up to but not including column2
+     */
+    private void setRow(final int row, final int column1, final int column2, final boolean value)
+    {
+        for (int w = column1 / BITS; w <= (column2 - 1) / BITS; w++)
+        {
+            final long mask = mask(w, column1, column2);
+            
+            if (value)
+            {
+                open[(row * words) + w] |= mask;
+            }
+            else
+            {
+                open[(row * words) + w] &= ~mask;
+            }
+        }
+    }
+    
+    /**
+     * Get the bits of the word that are between column1 and column2
+     */
+    private static long mask(final int word, final int column1, final int column2)
+    {
+        final int first = Math.max(column1 - (word * BITS), 0);
+        final int last = Math.min(column2 - (word * BITS), BITS);
+        
+        //all bits from first up to but not including last
+        final long high = (last == BITS) ? -1L : ((1L << last) - 1);
+        
+        return high & (-1L << first);
+    }
+    
+    /**
+     * Divide and round up, the divisor has to be positive
+     */
+    private static int ceilDiv(final int value, final int divisor)
+    {
+        return (value >= 0) ? (value + divisor - 1) / divisor : -(-value / divisor);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.gamesbykevin.jezzball.board;
+
+/**
+ * Keeps a running total of the open area by subtracting each captured rectangle
+ * @author GOD
+ */
+final class RectangleOccupancy implements Occupancy
+{
+    //the area of the entire board
+    private long totalArea;
+    
+    //the area that has not been captured yet
+    private long remainingArea;
+    
+    @Override
+    public void reset(final int x, final int y, final int width, final int height)
+    {
+        totalArea = (long)width * height;
+        remainingArea = totalArea;
+    }
+    
+    @Override
+    public void capture(final int x, final int y, final int width, final int height)
+    {
+        remainingArea -= (long)width * height;
+    }
+    
+    @Override
+    public long getRemainingArea()
+    {
+        return this.remainingArea;
+    }
+    
+    @Override
+    public long getTotalArea()
+    {
+        return this.totalArea;
+    }
+    
+    @Override
+    public boolean isExact()
+    {
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.gamesbykevin.jezzball.board;
+
+/**
+ * A request to split the boundary at a location.
+ * Once the split is applied by the Board the number of balls on each side is set.
+ *
+ * @author GOD
+ */
+public final class Split
+{
+    //the location of the split
+    private int x, y;
+    
+    //are we splitting left and right (vertical) or top and bottom (horizontal)
+    private boolean vertical;
+    
+    //the number of balls in the left/top and right/bottom side
+    private int first, second;
+    
+    //was the split applied to a boundary
+    private boolean applied;
+    
+    /**
+     * Set the location of the split, this will clear the previous result
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param vertical Are we splitting left and right (true) or top and bottom (false)
+     */
+    public void set(final int x, final int y, final boolean vertical)
+    {
+        this.x = x;
+        this.y = y;
+        this.vertical = vertical;
+        
+        setResult(false, 0, 0);
+    }
+    
+    void setResult(final boolean applied, final int first, final int second)
+    {
+        this.applied = applied;
+        this.first = first;
+        this.second = second;
+    }
+    
+    public int getX()
+    {
+        return this.x;
+    }
+    
+    public int getY()
+    {
+        return this.y;
+    }
+    
+    public boolean isVertical()
+    {
+        return this.vertical;
+    }
+    
+    /**
+     * Was a boundary found at the location and split
+     * @return boolean
+     */
+    public boolean isApplied()
+    {
+        return this.applied;
+    }
+    
+    /**
+     * The number of balls in the left/top side, if there are none the side was captured
+     * @return int
+     */
+    public int getFirstCount()
+    {
+        return this.first;
+    }
+    
+    /**
+     * The number of balls in the right/bottom side, if there are none the side was captured
+     * @return int
+     */
+    public int getSecondCount()
+    {
+        return this.second;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.gamesbykevin.jezzball.main;
+
+/**
+ * Decides how the game loop catches up after it falls behind.
+ * A short stall is caught up with a few updates in a row, only so many are run before the next frame.
+ * After a longer stall the updates still behind are dropped so the game runs slower than real time for a moment instead of jumping ahead.
+ * If the game keeps falling behind the updates per second are lowered until it keeps up, and raised again once there is time to spare.
+ * The time spent in each of these is measured so it can be displayed.
+ * @author GOD
+ */
+public final class CatchUpPolicy
+{
+    //the most updates run in a row before a frame is drawn
+    public static final int MAX_UPDATES = 5;
+    
+    //the lowest updates per second the game is lowered to
+    private static final int MIN_UPS = 30;
+    
+    //a second is overloaded if updating took more than this fraction of it or updates were dropped
+    private static final double OVERLOAD = 0.8;
+    
+    //a second has time to spare if updating took less than this fraction of it and no updates were dropped
+    private static final double SPARE = 0.4;
+    
+    //how many seconds in a row before the updates per second are lowered or raised
+    private static final int OVERLOAD_SECONDS = 3;
+    private static final int SPARE_SECONDS = 5;
+    
+    //how many nanoseconds are there in one second and one millisecond
+    private static final double NANO_SECONDS_PER_SECOND = 1000000000.0;
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
+    
+    //the updates per second the game is supposed to run at
+    private final int ups;
+    
+    //the updates per second the game runs at now
+    private int currentUps;
+    
+    //the time spent since the last call to nextSecond() updating, catching up and dropped
+    private long updateTotal = 0, catchUpTotal = 0, dilationTotal = 0;
+    
+    //the number of seconds in a row overloaded or with time to spare
+    private int overloadCount = 0, spareCount = 0;
+    
+    //the time spent in each in the last second in milliseconds
+    private double catchUp = 0, dilation = 0, adaptive = 0;
+    
+    /**
+     * Create a new policy
+     * @param ups The updates per second the game is supposed to run at
+     */
+    public CatchUpPolicy(final int ups)
+    {
+        if (ups < 1)
+            throw new IllegalArgumentException("The updates per second have to be at least 1, ups = " + ups);
+        
+        this.ups = ups;
+        this.currentUps = ups;
+    }
+    
+    /**
+     * Get the updates per second the game runs at now
+     * @return The updates per second, lower than the ups the policy was created with if the game is overloaded
+     */
+    public int getUps()
+    {
+        return this.currentUps;
+    }
+    
+    /**
+     * An update was run
+     * @param nanoSeconds How long the update took
+     * @param behind Was the update run to catch up, meaning another update was run before it without a frame in between
+     */
+    public void addUpdate(final long nanoSeconds, final boolean behind)
+    {
+        updateTotal += nanoSeconds;
+        
+        if (behind)
+            catchUpTotal += nanoSeconds;
+    }
+    
+    /**
+     * MAX_UPDATES were run and the game is still behind, the updates still behind are dropped
+     * @param deltaUpdate The number of updates due
+     * @param nanoSecondsPerUpdate The time each update covers
+     * @return The number of updates due after dropping, less than 1
+     */
+    public double dilate(final double deltaUpdate, final double nanoSecondsPerUpdate)
+    {
+        final double dropped = Math.floor(deltaUpdate);
+        
+        dilationTotal += (long)(dropped * nanoSecondsPerUpdate);
+        
+        return deltaUpdate - dropped;
+    }
+    
+    /**
+     * Keep the time spent in each for the last second and check if the updates per second should change
+     * @param measured Was the game running in real time for the second, if not the updates per second are not changed
+     * @return true if the updates per second changed
+     */
+    public boolean nextSecond(final boolean measured)
+    {
+        catchUp = catchUpTotal / NANO_SECONDS_PER_MILLISECOND;
+        dilation = dilationTotal / NANO_SECONDS_PER_MILLISECOND;
+        
+        //the updates per second only change between seconds so the whole second was at the same ups
+        adaptive = (currentUps < ups) ? NANO_SECONDS_PER_SECOND / NANO_SECONDS_PER_MILLISECOND : 0;
+        
+        final double busy = updateTotal / NANO_SECONDS_PER_SECOND;
+        final boolean dropped = (dilationTotal > 0);
+        
+        updateTotal = 0;
+        catchUpTotal = 0;
+        dilationTotal = 0;
+        
+        if (!measured)
+        {
+            overloadCount = 0;
+            spareCount = 0;
+            return false;
+        }
+        
+        overloadCount = (dropped || busy > OVERLOAD) ? overloadCount + 1 : 0;
+        spareCount = (!dropped && busy < SPARE) ? spareCount + 1 : 0;
+        
+        //lower by a quarter at a time
+        if (overloadCount >= OVERLOAD_SECONDS && currentUps > MIN_UPS)
+        {
+            overloadCount = 0;
+            currentUps = Math.max(MIN_UPS, (currentUps * 3) / 4);
+            return true;
+        }
+        
+        //raise back a step at a time
+        if (spareCount >= SPARE_SECONDS && currentUps < ups)
+        {
+            spareCount = 0;
+            currentUps = Math.min(ups, (currentUps * 4) / 3 + 1);
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Get the time spent in the last second running updates to catch up
+     * @return The time in milliseconds
+     */
+    public double getCatchUp()
+    {
+        return this.catchUp;
+    }
+    
+    /**
+     * Get the game time dropped in the last second because the updates couldn't catch up
+     * @return The time in milliseconds
+     */
+    public double getDilation()
+    {
+        return this.dilation;
+    }
+    
+    /**
+     * Get the time spent in the last second at lower updates per second
+     * @return The time in milliseconds
+     */
+    public double getAdaptive()
+    {
+        return this.adaptive;
+    }
+}
\ No newline at end of file
@@ -4,9 +4,13 @@ import com.gamesbykevin.framework.input.*;
 import com.gamesbykevin.framework.input.Keyboard;
 
 import com.gamesbykevin.jezzball.manager.Manager;
+import com.gamesbykevin.jezzball.manager.Snapshot;
+import com.gamesbykevin.jezzball.manager.SnapshotBuffer;
+import com.gamesbykevin.jezzball.manager.SnapshotRenderer;
 import com.gamesbykevin.jezzball.menu.CustomMenu;
 import com.gamesbykevin.jezzball.menu.CustomMenu.LayerKey;
 import com.gamesbykevin.jezzball.menu.CustomMenu.OptionKey;
+import com.gamesbykevin.jezzball.shared.Shared;
 
 import java.awt.*;
 import java.awt.event.*;
@@ -28,12 +32,33 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
     //keyboard object that will be recording key input
     private Keyboard keyboard;
     
+    //the events from the AWT event thread, the mouse and keyboard are only changed on the game thread
+    private final InputRing input = new InputRing();
+    
+    //the time the last event applied happened
+    private long inputTime = 0;
+    
     //original font
     private Font font;
     
+    //the font the game is drawn with, derived once the resources are loaded
+    private Font gameFont;
+    
     //object containing all of the game elements
     private Manager manager;
     
+    //draws the game from a snapshot, created once the resources are loaded
+    private SnapshotRenderer renderer;
+    
+    //the snapshot drawn when the frame is drawn between the updates
+    private final Snapshot snapshot = new Snapshot();
+    
+    //the snapshots passed from the updates to the render thread
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    
+    //is the game being played, if so the render thread can draw the snapshots without waiting for the updates
+    private volatile boolean playing = false;
+    
     /**
      * The Engine that contains the game/menu objects
      * 
@@ -70,6 +95,11 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
             
             manager.dispose();
             manager = null;
+            
+            if (renderer != null)
+                renderer.dispose();
+            
+            renderer = null;
         }
         catch(Exception e)
         {
@@ -82,6 +112,9 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
     {
         try
         {
+            //apply the input that happened since the last update
+            applyInput();
+            
             //if resources are still loading
             if (resources.isLoading())
             {
@@ -110,12 +143,35 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
                     //NOTE: MAIN GAME LOGIC HERE
                     if (manager != null)
                     {
+                        //while testing 'W' switches to the next time warp
+                        if (Shared.DEBUG && keyboard.hasKeyPressed(KeyEvent.VK_W))
+                        {
+                            main.setTimeWarp(main.getTimeWarp().next());
+                            keyboard.reset();
+                        }
+                        
+                        //while testing 'P' switches to the next pacer profile
+                        if (Shared.DEBUG && keyboard.hasKeyPressed(KeyEvent.VK_P))
+                        {
+                            main.getPacer().setProfile(main.getPacer().getProfile().next());
+                            keyboard.reset();
+                        }
+                        
                         manager.update(this);
                     }
                 }
+                else if (manager != null)
+                {
+                    //nothing moves while the menu is shown
+                    manager.pause();
+                }
                 
                 if (mouse.isMouseReleased())
                     mouse.reset();
+                
+                //give the render thread the game after this update
+                if (Shared.RENDER_THREAD)
+                    publish();
             }
         }
         catch(Exception e)
@@ -124,6 +180,48 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
         }
     }
     
+    /**
+     * Publish a snapshot of the game for the render thread if the game is being played
+     */
+    private void publish()
+    {
+        final boolean game = (manager != null && menu.hasFinished() && menu.hasFocus());
+        
+        if (game)
+        {
+            manager.publish(snapshots.getBack(), snapshots.hasCaughtUp());
+            snapshots.publish();
+        }
+        
+        //the snapshot is published first so it is there once playing is seen
+        playing = game;
+    }
+    
+    /**
+     * Can the frame be drawn from the latest snapshot, if not it has to be drawn between the updates with render()
+     * @return true if the game is being played and the menu isn't shown
+     */
+    public boolean hasSnapshot()
+    {
+        return (playing && renderer != null);
+    }
+    
+    /**
+     * Draw the latest snapshot published by the updates.
+     * Nothing here reads the game so this can be called from the render thread while the game updates.
+     * @param graphics Graphics object that game will be written to
+     */
+    public void renderSnapshot(final Graphics graphics)
+    {
+        //set the appropriate game font
+        graphics.setFont(gameFont);
+        
+        final Snapshot front = snapshots.getFront();
+        
+        //the balls and player are drawn between the last 2 updates by the time since the snapshot was published
+        renderer.render(graphics, front, main.getAlpha(front.getTime()));
+    }
+    
     public Main getMain()
     {
         return main;
@@ -144,8 +242,15 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
         getKeyboard().reset();
         getMouse().reset();
         
+        //the previous manager is still needed while the new one is created, to repeat the last seed
+        final Manager previous = manager;
+        
         manager = new Manager(this);
         
+        //free the threads of the previous game
+        if (previous != null)
+            previous.dispose();
+        
         //get index for specific menu option
         //final int algorithmIndex = menu.getOptionSelectionIndex(LayerKey.Options, OptionKey.Algorithm);
         
@@ -154,13 +259,24 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
     }
     
     /**
-     * Draw our game to the Graphics object whether resources are still loading or the game is intact
+     * Draw our game with the balls and player where the last update left them
      * @param graphics
      * @return Graphics
      * @throws Exception 
      */
     @Override
     public void render(Graphics graphics) throws Exception
+    {
+        render(graphics, 1);
+    }
+    
+    /**
+     * Draw our game to the Graphics object whether resources are still loading or the game is intact
+     * @param graphics
+     * @param alpha How far the time is from the last update to the next, the balls and player are drawn that far from the update before to the last update
+     * @throws Exception
+     */
+    public void render(final Graphics graphics, final double alpha) throws Exception
     {
         //store the original font if we haven't already
         if (font == null)
@@ -174,11 +290,19 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
         }
         else
         {
+            //the game font is only derived once
+            if (gameFont == null)
+                gameFont = resources.getGameFont(Resources.GameFont.Dialog).deriveFont(18f);
+            
             //set the appropriate game font
-            graphics.setFont(resources.getGameFont(Resources.GameFont.Dialog).deriveFont(18f));
+            graphics.setFont(gameFont);
+            
+            //the renderer is only created once
+            if (renderer == null)
+                renderer = new SnapshotRenderer(resources);
             
             //draw game elements
-            renderGame((Graphics2D)graphics);
+            renderGame((Graphics2D)graphics, alpha);
             
             //draw menu on top of the game if visible
             renderMenu(graphics);
@@ -188,14 +312,17 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
     /**
      * Draw our game elements
      * @param graphics2d Graphics2D object that game elements will be written to
+     * @param alpha How far the balls and player are drawn from the update before to the last update
      * @throws Exception 
      */
-    private void renderGame(Graphics2D graphics) throws Exception
+    private void renderGame(Graphics2D graphics, final double alpha) throws Exception
     {
         //NOTE: DRAW MAIN GAME HERE
         if (manager != null)
         {
-            manager.render(graphics);
+            //the render thread may have missed the changes to the board, they are kept until it has caught up
+            manager.publish(snapshot, !Shared.RENDER_THREAD);
+            renderer.render(graphics, snapshot, alpha);
         }
     }
     
@@ -246,64 +373,147 @@ public class Engine implements KeyListener, MouseMotionListener, MouseListener,
         return resources;
     }
     
+    /**
+     * Apply the events waiting in the input ring to the mouse and keyboard.
+     * A button or key event is the last event applied in an update,
+     * so a press and release between 2 updates are still seen 1 at a time and in order.
+     */
+    private void applyInput()
+    {
+        while (input.hasNext())
+        {
+            final long time = input.peekTime();
+            final InputEvent event = input.next();
+            final int id = event.getID();
+            
+            //only the last of the moves in a row is needed
+            if ((id == MouseEvent.MOUSE_MOVED || id == MouseEvent.MOUSE_DRAGGED) && input.peekId() == id)
+                continue;
+            
+            //keep the time the event happened
+            inputTime = time;
+            
+            switch (id)
+            {
+                case KeyEvent.KEY_PRESSED:
+                    keyboard.addKeyPressed(((KeyEvent)event).getKeyCode());
+                    return;
+                
+                case KeyEvent.KEY_RELEASED:
+                    keyboard.addKeyReleased(((KeyEvent)event).getKeyCode());
+                    return;
+                
+                case KeyEvent.KEY_TYPED:
+                    keyboard.addKeyTyped(((KeyEvent)event).getKeyChar());
+                    return;
+                
+                case MouseEvent.MOUSE_PRESSED:
+                    mouse.setMousePressed((MouseEvent)event);
+                    return;
+                
+                case MouseEvent.MOUSE_RELEASED:
+                    mouse.setMouseReleased((MouseEvent)event);
+                    return;
+                
+                case MouseEvent.MOUSE_CLICKED:
+                    mouse.setMouseClicked((MouseEvent)event);
+                    return;
+                
+                case MouseEvent.MOUSE_ENTERED:
+                    mouse.setMouseEntered(((MouseEvent)event).getPoint());
+                    break;
+                
+                case MouseEvent.MOUSE_EXITED:
+                    mouse.setMouseExited(((MouseEvent)event).getPoint());
+                    break;
+                
+                case MouseEvent.MOUSE_MOVED:
+                    mouse.setMouseMoved(((MouseEvent)event).getPoint());
+                    break;
+                
+                case MouseEvent.MOUSE_DRAGGED:
+                    mouse.setMouseDragged(((MouseEvent)event).getPoint());
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Get the time the last event applied to the mouse and keyboard happened
+     * @return The time in nanoseconds from System.nanoTime(), 0 if there hasn't been an event
+     */
+    public long getInputTime()
+    {
+        return this.inputTime;
+    }
+    
+    /**
+     * Get the number of mouse and key events lost because the game thread didn't keep up
+     * @return long
+     */
+    public long getDroppedInput()
+    {
+        return input.getDropped();
+    }
+    
     @Override
     public void keyReleased(KeyEvent e)
     {
-        keyboard.addKeyReleased(e.getKeyCode());
+        input.add(e);
     }
     
     @Override
     public void keyPressed(KeyEvent e)
     {
-        keyboard.addKeyPressed(e.getKeyCode());
+        input.add(e);
     }
     
     @Override
     public void keyTyped(KeyEvent e)
     {
-        keyboard.addKeyTyped(e.getKeyChar());
+        input.add(e);
     }
     
     @Override
     public void mouseClicked(MouseEvent e)
     {
-        mouse.setMouseClicked(e);
+        input.add(e);
     }
     
     @Override
     public void mousePressed(MouseEvent e)
     {
-        mouse.setMousePressed(e);
+        input.add(e);
     }
     
     @Override
     public void mouseReleased(MouseEvent e)
     {
-        mouse.setMouseReleased(e);
+        input.add(e);
     }
     
     @Override
     public void mouseEntered(MouseEvent e)
     {
-        mouse.setMouseEntered(e.getPoint());
+        input.add(e);
     }
     
     @Override
     public void mouseExited(MouseEvent e)
     {
-        mouse.setMouseExited(e.getPoint());
+        input.add(e);
     }
     
     @Override
     public void mouseMoved(MouseEvent e)
     {
-        mouse.setMouseMoved(e.getPoint());
+        input.add(e);
     }
     
     @Override
     public void mouseDragged(MouseEvent e)
     {
-        mouse.setMouseDragged(e.getPoint());
+        input.add(e);
     }
     
     public Mouse getMouse()
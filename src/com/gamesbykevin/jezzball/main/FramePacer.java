@@ -0,0 +1,189 @@
+package com.gamesbykevin.jezzball.main;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for the next update or frame that is due so the game loop doesn't keep a core busy.
+ * The thread is parked until close to the time and then spins the rest of the way,
+ * parking can wake up late so the closer the time the more it spins.
+ * The time between each update is measured so the jitter can be displayed.
+ * @author GOD
+ */
+public final class FramePacer
+{
+    /**
+     * How long to spin before the time, less spinning uses less cpu but the updates are less even
+     */
+    public enum Profile
+    {
+        //park the whole time
+        LowPower(0, false),
+        
+        //park until 1 millisecond before and yield to other threads the rest of the time
+        Balanced(1000000, false),
+        
+        //park until 2 milliseconds before and spin without yielding the rest of the time
+        LowLatency(2000000, true);
+        
+        private final long spinNanoSeconds;
+        private final boolean busy;
+        
+        private Profile(final long spinNanoSeconds, final boolean busy)
+        {
+            this.spinNanoSeconds = spinNanoSeconds;
+            this.busy = busy;
+        }
+        
+        /**
+         * Get the next profile, after LowLatency is LowPower again
+         * @return Profile
+         */
+        public Profile next()
+        {
+            return values()[(ordinal() + 1) % values().length];
+        }
+    }
+    
+    //how many nanoseconds are there in one millisecond
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
+    
+    //the time expected between each update in nanoseconds
+    private double nanoSecondsPerUpdate;
+    
+    //how long to spin, can be changed from another thread
+    private volatile Profile profile;
+    
+    //the time of the last update, 0 if there hasn't been one
+    private long lastTick = 0;
+    
+    //the jitter measured since the last call to nextSecond()
+    private double jitterTotal = 0, jitterMax = 0;
+    private int jitterCount = 0;
+    
+    //the jitter measured in the last second in milliseconds
+    private double averageJitter = 0, maxJitter = 0;
+    
+    /**
+     * Create a new pacer
+     * @param nanoSecondsPerUpdate The time expected between each update in nanoseconds
+     * @param profile How long to spin before the time
+     */
+    public FramePacer(final double nanoSecondsPerUpdate, final Profile profile)
+    {
+        this.nanoSecondsPerUpdate = nanoSecondsPerUpdate;
+        
+        setProfile(profile);
+    }
+    
+    /**
+     * Set the time expected between each update, for when the updates per second change
+     * @param nanoSecondsPerUpdate The time in nanoseconds
+     */
+    public void setNanoSecondsPerUpdate(final double nanoSecondsPerUpdate)
+    {
+        this.nanoSecondsPerUpdate = nanoSecondsPerUpdate;
+        
+        //the time since the last update was measured against the time before
+        skipTick();
+    }
+    
+    /**
+     * Set how long to spin before the time
+     * @param profile The profile
+     */
+    public void setProfile(final Profile profile)
+    {
+        if (profile == null)
+            throw new IllegalArgumentException("The profile can't be null");
+        
+        this.profile = profile;
+    }
+    
+    public Profile getProfile()
+    {
+        return this.profile;
+    }
+    
+    /**
+     * Wait until the time
+     * @param time The time in nanoseconds from System.nanoTime()
+     */
+    public void waitUntil(final long time)
+    {
+        //read once so the profile doesn't change part way through
+        final Profile current = profile;
+        
+        long remaining = time - System.nanoTime();
+        
+        //park until close to the time, parking can wake up early so check again
+        while (remaining > current.spinNanoSeconds)
+        {
+            LockSupport.parkNanos(remaining - current.spinNanoSeconds);
+            remaining = time - System.nanoTime();
+        }
+        
+        //then spin the rest of the way
+        while (time - System.nanoTime() > 0)
+        {
+            if (!current.busy)
+                Thread.yield();
+        }
+    }
+    
+    /**
+     * An update is starting, measure how far the time since the last update is from the time expected
+     * @param time The time in nanoseconds from System.nanoTime()
+     */
+    public void addTick(final long time)
+    {
+        if (lastTick != 0)
+        {
+            final double jitter = Math.abs((time - lastTick) - nanoSecondsPerUpdate);
+            
+            jitterTotal += jitter;
+            jitterMax = Math.max(jitterMax, jitter);
+            jitterCount++;
+        }
+        
+        lastTick = time;
+    }
+    
+    /**
+     * Stop measuring the jitter until the next update, for when the updates are not supposed to be even
+     */
+    public void skipTick()
+    {
+        lastTick = 0;
+    }
+    
+    /**
+     * Keep the jitter measured in the last second and start measuring again
+     */
+    public void nextSecond()
+    {
+        averageJitter = (jitterCount == 0) ? 0 : (jitterTotal / jitterCount) / NANO_SECONDS_PER_MILLISECOND;
+        maxJitter = jitterMax / NANO_SECONDS_PER_MILLISECOND;
+        
+        jitterTotal = 0;
+        jitterMax = 0;
+        jitterCount = 0;
+    }
+    
+    /**
+     * Get the average distance from the time expected between each update in the last second
+     * @return The jitter in milliseconds
+     */
+    public double getAverageJitter()
+    {
+        return this.averageJitter;
+    }
+    
+    /**
+     * Get the largest distance from the time expected between each update in the last second
+     * @return The jitter in milliseconds
+     */
+    public double getMaxJitter()
+    {
+        return this.maxJitter;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.gamesbykevin.jezzball.main;
+
+import java.awt.event.InputEvent;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The mouse and key events waiting for the next update.
+ * The AWT event thread adds the events and the game thread removes them,
+ * so there is only 1 thread on each side and neither side has to wait for the other.
+ * The slots are created once, nothing is created when an event is added or removed.
+ * An event that doesn't fit is dropped and that input is lost, for example a dropped mouse release
+ * leaves the button down until the next release, the number dropped is shown with the frame counter.
+ * @author GOD
+ */
+public final class InputRing
+{
+    //the number of events that can be waiting, has to be a power of 2
+    private static final int CAPACITY = 256;
+    
+    //the events and the time each one was added in nanoseconds
+    private final InputEvent[] events = new InputEvent[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    
+    //the next event to remove, only changed by the game thread
+    private final AtomicLong head = new AtomicLong();
+    
+    //the next slot to add to, only changed by the AWT event thread
+    private final AtomicLong tail = new AtomicLong();
+    
+    //the number of events that didn't fit, only changed by the AWT event thread
+    private volatile long dropped = 0;
+    
+    /**
+     * Add an event, only to be called from the AWT event thread
+     * @param event The mouse or key event
+     * @return true if the event was added, false if the ring is full and the event was dropped
+     */
+    public boolean add(final InputEvent event)
+    {
+        final long index = tail.get();
+        
+        //the game thread hasn't caught up
+        if (index - head.get() == CAPACITY)
+        {
+            dropped++;
+            return false;
+        }
+        
+        final int slot = (int)(index & (CAPACITY - 1));
+        
+        events[slot] = event;
+        times[slot] = System.nanoTime();
+        
+        //the slot is written before the game thread can see it
+        tail.lazySet(index + 1);
+        
+        return true;
+    }
+    
+    /**
+     * Is there an event waiting, only to be called from the game thread
+     * @return boolean
+     */
+    public boolean hasNext()
+    {
+        return (head.get() != tail.get());
+    }
+    
+    /**
+     * Get the id of the next event without removing it, only to be called from the game thread
+     * @return The id of the event, for example MouseEvent.MOUSE_PRESSED, 0 if there is no event waiting
+     */
+    public int peekId()
+    {
+        return hasNext() ? events[(int)(head.get() & (CAPACITY - 1))].getID() : 0;
+    }
+    
+    /**
+     * Get the time the next event was added without removing it, only to be called from the game thread
+     * @return The time in nanoseconds from System.nanoTime(), 0 if there is no event waiting
+     */
+    public long peekTime()
+    {
+        return hasNext() ? times[(int)(head.get() & (CAPACITY - 1))] : 0;
+    }
+    
+    /**
+     * Remove the next event, only to be called from the game thread
+     * @return The event, null if there is no event waiting
+     */
+    public InputEvent next()
+    {
+        final long index = head.get();
+        
+        if (index == tail.get())
+            return null;
+        
+        final int slot = (int)(index & (CAPACITY - 1));
+        
+        final InputEvent event = events[slot];
+        
+        //don't keep the event around until the slot is used again
+        events[slot] = null;
+        
+        //the slot is read before the AWT event thread can use it again
+        head.lazySet(index + 1);
+        
+        return event;
+    }
+    
+    /**
+     * Get the number of events that were dropped because the ring was full
+     * @return long
+     */
+    public long getDropped()
+    {
+        return this.dropped;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.gamesbykevin.jezzball.main;
+
+import java.io.PrintWriter;
+
+/**
+ * Counts latencies in buckets of 0.1 milliseconds so percentiles can be found without keeping every value.
+ * Latencies of 1 second or more are counted in the last bucket.
+ * The latencies are added on the game thread and can be written from another thread when the game exits.
+ * @author GOD
+ */
+public final class LatencyHistogram
+{
+    //the size of each bucket in nanoseconds
+    private static final long BUCKET_NANO_SECONDS = 100000;
+    
+    //the number of buckets, enough for 1 second
+    private static final int BUCKETS = 10000;
+    
+    //how many nanoseconds are there in one millisecond
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
+    
+    //what is measured
+    private final String name;
+    
+    //the number of latencies in each bucket
+    private final int[] counts = new int[BUCKETS];
+    
+    //the number of latencies added
+    private int count = 0;
+    
+    //the highest latency added in nanoseconds
+    private long max = 0;
+    
+    /**
+     * Create a new histogram
+     * @param name What is measured, used when the histogram is written
+     */
+    public LatencyHistogram(final String name)
+    {
+        this.name = name;
+    }
+    
+    /**
+     * Add a latency
+     * @param nanoSeconds The latency in nanoseconds, negative values are counted as 0
+     */
+    public synchronized void add(final long nanoSeconds)
+    {
+        final long value = Math.max(0, nanoSeconds);
+        
+        counts[(int)Math.min(value / BUCKET_NANO_SECONDS, BUCKETS - 1)]++;
+        
+        count++;
+        max = Math.max(max, value);
+    }
+    
+    /**
+     * Get the number of latencies added
+     * @return int
+     */
+    public synchronized int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get the latency that the given percent of the latencies are at or below
+     * @param percent The percent between 0 and 100
+     * @return The upper end of the bucket in milliseconds, 0 if nothing has been added
+     */
+    public synchronized double getPercentile(final double percent)
+    {
+        if (percent < 0 || percent > 100)
+            throw new IllegalArgumentException("The percent has to be between 0 and 100, percent = " + percent);
+        
+        if (count == 0)
+            return 0;
+        
+        //the number of latencies that have to be at or below the result
+        final long target = Math.max(1, (long)Math.ceil(count * percent / 100));
+        
+        long total = 0;
+        
+        for (int index = 0; index < BUCKETS; index++)
+        {
+            total += counts[index];
+            
+            if (total >= target)
+            {
+                //the last bucket has no upper end
+                if (index == BUCKETS - 1)
+                    return getMax();
+                
+                return Math.min((index + 1) * BUCKET_NANO_SECONDS, max) / NANO_SECONDS_PER_MILLISECOND;
+            }
+        }
+        
+        return getMax();
+    }
+    
+    /**
+     * Get the highest latency added
+     * @return The latency in milliseconds
+     */
+    public synchronized double getMax()
+    {
+        return max / NANO_SECONDS_PER_MILLISECOND;
+    }
+    
+    /**
+     * Get the description to display
+     * @return The 50th, 95th and 99th percentile
+     */
+    public synchronized String getDesc()
+    {
+        return String.format("p50 %.1f, p95 %.1f, p99 %.1f ms", getPercentile(50), getPercentile(95), getPercentile(99));
+    }
+    
+    /**
+     * Write the percentiles and the count in each bucket that isn't empty
+     * @param writer Where the histogram is written
+     */
+    public synchronized void write(final PrintWriter writer)
+    {
+        writer.println(name + ": " + count + " latencies, " + getDesc() + ", max " + String.format("%.1f", getMax()) + " ms");
+        
+        for (int index = 0; index < BUCKETS; index++)
+        {
+            if (counts[index] == 0)
+                continue;
+            
+            writer.println(String.format("%.1f ms\t%d", (index * BUCKET_NANO_SECONDS) / NANO_SECONDS_PER_MILLISECOND, counts[index]));
+        }
+    }
+}
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.gamesbykevin.jezzball.main;
 
 import java.awt.*;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.*;
 
 import com.gamesbykevin.jezzball.shared.Shared;
+import com.gamesbykevin.jezzball.simulation.TimeWarp;
 
 public class Main extends Thread
 {
@@ -28,26 +33,71 @@ public class Main extends Thread
     //do we hide mouse when the menu is not visible and actual gameplay started
     public static boolean HIDE_MOUSE = true;
     
-    //how many nanoseconds bewteen each engine update
-    private double nanoSecondsPerUpdate;
+    //how many nanoseconds bewteen each engine update, changed if the game can't keep up
+    private volatile double nanoSecondsPerUpdate;
     
     //how many nanoseconds between each frame render
     private double nanoSecondsPerFrame;
     
+    //how many frames per second are rendered while the time is warped
+    private static final int WARP_FPS = 10;
+    
+    //how many nanoseconds between each frame render while the time is warped, the updates run in between
+    private static final double NANO_SECONDS_PER_WARP_FRAME = 1000000000.0 / WARP_FPS;
+    
+    //how much faster than real time the game runs, can be changed from another thread
+    private volatile TimeWarp timeWarp = TimeWarp.Normal;
+    
+    //waits for the next update or frame and measures the jitter
+    private final FramePacer pacer;
+    
+    //decides how the updates catch up after a stall and lowers the updates per second if they can't keep up
+    private final CatchUpPolicy catchUp;
+    
     //frames per second
     private int frames = 0;
     
     //updates per second
     private int updates = 0;
     
-    //frames per second current count
-    private int currentFPS  = 0;
+    //frames per second current count, set by the render thread if there is one
+    private volatile int currentFPS  = 0;
     
     //updates per second current count
-    private int currentUPS = 0;
+    private volatile int currentUPS = 0;
+    
+    //draws the frames while the game updates, null if the frames are drawn between the updates
+    private volatile Thread renderThread;
+    
+    //the frame counter text and the values it was created from
+    private String counterDesc;
+    private int counterUPS, counterFPS, counterWidth;
+    private double counterJitter, counterMaxJitter;
+    private TimeWarp counterWarp;
+    private FramePacer.Profile counterProfile;
+    
+    //the catch up text and the values it was created from
+    private String catchUpDesc;
+    private int catchUpUps, catchUpWidth;
+    private double catchUpTime, catchUpDilation, catchUpAdaptive;
     
-    //how many nanoseconds are there in one second
+    //the time from the click to the capture starting, and to the end of the next frame drawn on the screen
+    private final LatencyHistogram captureLatency = new LatencyHistogram("click to capture");
+    private final LatencyHistogram visibleLatency = new LatencyHistogram("click to visible");
+    
+    //the time of the click for the capture that hasn't been drawn yet, 0 if there is none
+    private volatile long clickTime = 0;
+    
+    //the latency text and the number of latencies it was created from
+    private String latencyDesc;
+    private int latencyCount, latencyWidth;
+    
+    //the latencies are only written once, either when disposed or when the game exits
+    private final AtomicBoolean latencyWritten = new AtomicBoolean();
+    
+    //how many nanoseconds are there in one second and one millisecond
     private static final double NANO_SECONDS_PER_SECOND = 1000000000.0;
+    private static final double NANO_SECONDS_PER_MILLISECOND = 1000000.0;
     
     //reference to our applet
     private JApplet applet;
@@ -58,6 +108,24 @@ public class Main extends Thread
     //cache this graphics object so we aren't constantly creating it
     private Graphics graphics;
     
+    //shows the frames by page flipping, null if the image is drawn onto the applet or panel
+    private ScreenCanvas canvas;
+    
+    //the time spent showing frames on the screen since presentTimer, and the average for each frame in the last second in milliseconds
+    private long presentTimer = 0, presentTotal = 0;
+    private int presentCount = 0;
+    private double presentTime = 0;
+    
+    //the present text and the average it was created from
+    private String presentDesc;
+    private double presentDescTime;
+    private int presentWidth;
+    
+    //the dropped input text and the number of dropped events it was created from
+    private String inputDesc;
+    private long inputDropped;
+    private int inputWidth;
+    
     /**
      * Main class that runs the game engine
      * 
@@ -75,6 +143,12 @@ public class Main extends Thread
         
         //duration per each frame render in nanoseconds
         nanoSecondsPerFrame = NANO_SECONDS_PER_SECOND / fps;
+        
+        //the jitter is measured against the time between each update
+        pacer = new FramePacer(nanoSecondsPerUpdate, FramePacer.Profile.valueOf(Shared.PACER));
+        
+        //the updates per second start at ups and are only lowered if the game can't keep up
+        catchUp = new CatchUpPolicy(ups);
     }
     
     /**
@@ -84,8 +158,46 @@ public class Main extends Thread
     {
         engine = new Engine(this);
         
+        //the window closes with System.exit() so the latencies are written when the game exits
+        if (Shared.LATENCY_FILE != null)
+        {
+            Runtime.getRuntime().addShutdownHook(new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    writeLatency();
+                }
+            });
+        }
+        
+        //the frames are shown by page flipping on a canvas that covers the applet or panel
+        if (Shared.BUFFER_STRATEGY)
+        {
+            canvas = new ScreenCanvas(originalSizeWindow.width, originalSizeWindow.height, Shared.BUFFERS);
+            canvas.setCursor(Shared.createCursor());
+            canvas.setFocusable(true);
+            
+            if (applet != null)
+            {
+                applet.add(canvas, BorderLayout.CENTER);
+            }
+            else
+            {
+                panel.setLayout(new BorderLayout());
+                panel.add(canvas, BorderLayout.CENTER);
+            }
+        }
+        
         //now that engine is created apply listeners so we can detect key/mouse input
-        if (applet != null)
+        if (canvas != null)
+        {
+            //the canvas covers the applet or panel so it gets the input
+            canvas.addKeyListener(engine);
+            canvas.addMouseMotionListener(engine);
+            canvas.addMouseListener(engine);
+        }
+        else if (applet != null)
         {
             applet.addKeyListener(engine);
             applet.addMouseMotionListener(engine);
@@ -111,6 +223,22 @@ public class Main extends Thread
         double deltaUpdate = 0;
         double deltaFrame = 0;
         
+        //the frames are drawn on their own thread from snapshots of the game
+        if (Shared.RENDER_THREAD)
+        {
+            renderThread = new Thread("render")
+            {
+                @Override
+                public void run()
+                {
+                    runRender();
+                }
+            };
+            
+            renderThread.setDaemon(true);
+            renderThread.start();
+        }
+        
         while(true)
         {
             try
@@ -118,24 +246,91 @@ public class Main extends Thread
                 //get current system nano time
                 long now = System.nanoTime();
                 
-                //update these variables
-                deltaUpdate += ((now - lastRun) / nanoSecondsPerUpdate);
-                deltaFrame += ((now - lastRun) / nanoSecondsPerFrame);
-                
-                //set the current time as the last run
-                lastRun = now;
+                //read once so the warp doesn't change part way through
+                final TimeWarp warp = timeWarp;
                 
-                while(deltaUpdate >= 1)
+                if (warp == TimeWarp.Normal)
                 {
-                    engine.update(this);
+                    //update these variables
+                    deltaUpdate += ((now - lastRun) / nanoSecondsPerUpdate);
+                    deltaFrame += ((now - lastRun) / nanoSecondsPerFrame);
+                    
+                    //set the current time as the last run
+                    lastRun = now;
+                    
+                    //only so many updates are run in a row so a stall doesn't cause a burst of updates that stalls again
+                    int count = 0;
+                    
+                    while(deltaUpdate >= 1 && count < CatchUpPolicy.MAX_UPDATES)
+                    {
+                        final long start = System.nanoTime();
+                        
+                        pacer.addTick(start);
+                        
+                        updateEngine();
+                        
+                        //every update after the first without a frame in between is catching up
+                        catchUp.addUpdate(System.nanoTime() - start, count > 0);
+                        
+                        count++;
+                        updates++;
+                        deltaUpdate--;
+                    }
+                    
+                    //if still behind the rest of the updates are dropped, the game runs slower than real time instead of jumping ahead
+                    if (deltaUpdate >= 1)
+                    {
+                        deltaUpdate = catchUp.dilate(deltaUpdate, nanoSecondsPerUpdate);
+                        pacer.skipTick();
+                    }
                     
-                    updates++;
-                    deltaUpdate--;
+                    //the frames that were missed are skipped
+                    deltaFrame = Math.min(deltaFrame, 1);
                 }
+                else
+                {
+                    //the updates are not supposed to be even while the time is warped
+                    pacer.skipTick();
+                    
+                    //the updates are due warp times faster, only a few frames are drawn
+                    if (!warp.isUnlimited())
+                        deltaUpdate += ((now - lastRun) / nanoSecondsPerUpdate) * warp.getFactor();
+                    
+                    deltaFrame += ((now - lastRun) / NANO_SECONDS_PER_WARP_FRAME);
+                    
+                    //set the current time as the last run
+                    lastRun = now;
+                    
+                    //update in a tight loop until the next frame is due
+                    final long stop = now + (long)NANO_SECONDS_PER_WARP_FRAME;
+                    
+                    while ((warp.isUnlimited() || deltaUpdate >= 1) && System.nanoTime() < stop)
+                    {
+                        updateEngine();
+                        
+                        updates++;
+                        
+                        if (!warp.isUnlimited())
+                            deltaUpdate--;
+                    }
+                    
+                    //if the updates can't keep up the ones behind are dropped instead of falling further behind
+                    deltaUpdate = Math.min(deltaUpdate, 1);
+                    
+                    //the frames that were missed are skipped
+                    deltaFrame = Math.min(deltaFrame, 1);
+                }
+                
+                //the render thread draws the frames if there is one
+                if (renderThread != null)
+                    deltaFrame = 0;
+                
+                //the balls and player are drawn as far between the last 2 updates as the time is between the last update and the next
+                final double alpha = (warp == TimeWarp.Normal) ? Math.min(deltaUpdate, 1) : 1;
                 
                 while(deltaFrame >= 1)
                 {
-                    renderImage();
+                    renderImage(false, alpha);
                     drawScreen();
                     
                     frames++;
@@ -150,12 +345,38 @@ public class Main extends Thread
                     
                     //store the current fps/ups to be displayed to the user
                     currentUPS = updates;
-                    currentFPS = frames;
+                    
+                    if (renderThread == null)
+                        currentFPS = frames;
+                    
+                    //keep the jitter for the last second
+                    pacer.nextSecond();
+                    
+                    //the updates per second are only lowered or raised while the game runs in real time
+                    if (catchUp.nextSecond(warp == TimeWarp.Normal))
+                    {
+                        final double previous = nanoSecondsPerUpdate;
+                        
+                        nanoSecondsPerUpdate = NANO_SECONDS_PER_SECOND / catchUp.getUps();
+                        pacer.setNanoSecondsPerUpdate(nanoSecondsPerUpdate);
+                        
+                        //the part of the next update that has passed is the same time in the new updates
+                        deltaUpdate *= (previous / nanoSecondsPerUpdate);
+                    }
                     
                     //reset the counter
                     updates = 0;
                     frames = 0;
                 }
+                
+                //wait for the next update or frame that is due instead of checking again right away
+                if (!warp.isUnlimited())
+                {
+                    final double nextUpdate = (1 - deltaUpdate) * (nanoSecondsPerUpdate / warp.getFactor());
+                    final double nextFrame = (1 - deltaFrame) * ((warp == TimeWarp.Normal) ? nanoSecondsPerFrame : NANO_SECONDS_PER_WARP_FRAME);
+                    
+                    pacer.waitUntil(now + (long)Math.min(nextUpdate, nextFrame));
+                }
             }
             catch(Exception e)
             {
@@ -164,6 +385,116 @@ public class Main extends Thread
         }
     }
     
+    /**
+     * Update the engine, the render thread can't draw from the game while it is updated
+     */
+    private void updateEngine()
+    {
+        synchronized (engine)
+        {
+            engine.update(this);
+        }
+    }
+    
+    /**
+     * The loop for the render thread, the frames are drawn at the frames per second without waiting for the updates.
+     * While the game is played the latest snapshot is drawn, anything else is drawn between the updates.
+     */
+    private void runRender()
+    {
+        //the render thread waits the same way as the updates
+        final FramePacer framePacer = new FramePacer(nanoSecondsPerFrame, pacer.getProfile());
+        
+        //this will reset the fps count every second
+        long timer = System.nanoTime();
+        
+        //when the next frame is due
+        long next = timer;
+        
+        //frames drawn this second
+        int count = 0;
+        
+        while (renderThread == Thread.currentThread())
+        {
+            try
+            {
+                if (engine.hasSnapshot())
+                {
+                    renderImage(true, 1);
+                    drawScreen();
+                }
+                else
+                {
+                    //the menu and loading screen read the game itself
+                    synchronized (engine)
+                    {
+                        renderImage(false, 1);
+                        drawScreen();
+                    }
+                }
+                
+                count++;
+                
+                final long now = System.nanoTime();
+                
+                //if 1 second has passed
+                if (now - timer > NANO_SECONDS_PER_SECOND)
+                {
+                    timer += NANO_SECONDS_PER_SECOND;
+                    currentFPS = count;
+                    count = 0;
+                }
+                
+                //the frames that were missed are skipped
+                next = Math.max(next + (long)nanoSecondsPerFrame, now);
+                
+                framePacer.setProfile(pacer.getProfile());
+                framePacer.waitUntil(next);
+            }
+            catch(Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Set how much faster than real time the game runs.
+     * The game time covered by each update doesn't change so the timers and the game stay together.
+     * @param timeWarp The warp, Normal is real time
+     */
+    public void setTimeWarp(final TimeWarp timeWarp)
+    {
+        if (timeWarp == null)
+            throw new IllegalArgumentException("The time warp can't be null");
+        
+        this.timeWarp = timeWarp;
+    }
+    
+    public TimeWarp getTimeWarp()
+    {
+        return this.timeWarp;
+    }
+    
+    /**
+     * Get how far the time is from an update to the next, the frames are drawn that far between the update before and that update.
+     * While the time is warped the updates are not even so the frames are drawn where the last update left the game.
+     * @param time The time of the update in nanoseconds from System.nanoTime()
+     * @return The fraction from 0 to 1
+     */
+    public double getAlpha(final long time)
+    {
+        if (timeWarp != TimeWarp.Normal)
+            return 1;
+        
+        return Math.max(0, Math.min(1, (System.nanoTime() - time) / nanoSecondsPerUpdate));
+    }
+    
+    public FramePacer getPacer()
+    {
+        return this.pacer;
+    }
+    
     public void setApplet(final JApplet applet)
     {
         this.applet = applet;
@@ -252,27 +583,42 @@ public class Main extends Thread
         return (long)nanoSecondsPerUpdate;
     }
     
+    /**
+     * The speeds in the game are the distance moved in 1 update at Shared.DEFAULT_UPS.
+     * This is how many of those updates each update covers so the game plays the same at any ups.
+     * Once the CatchUpPolicy lowers the ups this is a fraction, everything moved by it keeps the fractions between updates.
+     *
+     * @return double The amount of time each update covers
+     */
+    public double getUpdateDelta()
+    {
+        return nanoSecondsPerUpdate / (NANO_SECONDS_PER_SECOND / Shared.DEFAULT_UPS);
+    }
+    
     /**
      * Writes all game/menu elements in our 
      * engine to our single bufferedImage.
      * 
+     * @param snapshot Draw the latest snapshot of the game, otherwise the engine draws from the game itself
+     * @param alpha How far the time is from the last update to the next, only used when the engine draws from the game itself
      * @throws Exception 
      */
-    private void renderImage() throws Exception
+    private void renderImage(final boolean snapshot, final double alpha) throws Exception
     {
-        if (bufferedImage != null)
+        if (canvas != null)
+        {
+            //the canvas keeps the image on the graphics card, there is none until the canvas is displayed
+            final Graphics imageGraphics = canvas.getImageGraphics();
+            
+            if (imageGraphics != null)
+                renderImage(imageGraphics, snapshot, alpha);
+        }
+        else if (bufferedImage != null)
         {
             if (bufferedImageGraphics == null)
                 bufferedImageGraphics = bufferedImage.getGraphics();
             
-            //background by itself will be a black rectangle
-            bufferedImageGraphics.setColor(Color.BLACK);
-            bufferedImageGraphics.fillRect(0, 0, Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT);
-
-            engine.render(bufferedImageGraphics);
-
-            if (Shared.DEBUG)
-                renderCounter(bufferedImageGraphics);
+            renderImage(bufferedImageGraphics, snapshot, alpha);
         }
         else
         {
@@ -281,12 +627,43 @@ public class Main extends Thread
         }
     }
     
+    /**
+     * Writes all game/menu elements in our engine to the image
+     *
+     * @param imageGraphics Graphics object of the image
+     * @param snapshot Draw the latest snapshot of the game, otherwise the engine draws from the game itself
+     * @param alpha How far the time is from the last update to the next, only used when the engine draws from the game itself
+     * @throws Exception
+     */
+    private void renderImage(final Graphics imageGraphics, final boolean snapshot, final double alpha) throws Exception
+    {
+        //background by itself will be a black rectangle
+        imageGraphics.setColor(Color.BLACK);
+        imageGraphics.fillRect(0, 0, Shared.ORIGINAL_WIDTH, Shared.ORIGINAL_HEIGHT);
+        
+        if (snapshot)
+        {
+            engine.renderSnapshot(imageGraphics);
+        }
+        else
+        {
+            engine.render(imageGraphics, alpha);
+        }
+        
+        if (Shared.DEBUG)
+            renderCounter(imageGraphics);
+    }
+    
     /**
      * Does the applet have focus, if this is a JPanel it will always return true
      * @return boolean
      */
     public boolean hasFocus()
     {
+        //the canvas takes the focus from the applet
+        if (canvas != null && canvas.hasFocus())
+            return true;
+        
         if (applet != null)
         {
             return applet.hasFocus();
@@ -305,15 +682,151 @@ public class Main extends Thread
      */
     private void renderCounter(Graphics graphics)
     {
-        String result = currentUPS + " UPS, " + currentFPS + " FPS";
-        int width = graphics.getFontMetrics().stringWidth(result);
-        int height = graphics.getFontMetrics().getHeight() + 1;
-        Rectangle tmp = new Rectangle(originalSizeWindow.width - width, originalSizeWindow.height - height, width, height);
+        //the text only changes once a second so it is only created again when the values change
+        if (counterDesc == null || counterUPS != currentUPS || counterFPS != currentFPS || counterWarp != timeWarp ||
+            counterJitter != pacer.getAverageJitter() || counterMaxJitter != pacer.getMaxJitter() || counterProfile != pacer.getProfile())
+        {
+            counterUPS = currentUPS;
+            counterFPS = currentFPS;
+            counterWarp = timeWarp;
+            counterJitter = pacer.getAverageJitter();
+            counterMaxJitter = pacer.getMaxJitter();
+            counterProfile = pacer.getProfile();
+            
+            counterDesc = counterUPS + " UPS, " + counterFPS + " FPS";
+            
+            //the average and largest jitter between updates in the last second
+            counterDesc += String.format(", jitter %.1f/%.1f ms %s", counterJitter, counterMaxJitter, counterProfile);
+            
+            //show how fast the game is running if not real time
+            if (counterWarp != TimeWarp.Normal)
+                counterDesc += ", " + counterWarp.getDesc();
+            
+            counterWidth = graphics.getFontMetrics().stringWidth(counterDesc);
+        }
+        
+        final int height = graphics.getFontMetrics().getHeight() + 1;
+        
+        int y = originalSizeWindow.height - height;
+        
+        renderCounterLine(graphics, counterDesc, counterWidth, y, height);
+        
+        //the time spent catching up goes above
+        if (catchUpDesc == null || catchUpUps != catchUp.getUps() || catchUpTime != catchUp.getCatchUp() ||
+            catchUpDilation != catchUp.getDilation() || catchUpAdaptive != catchUp.getAdaptive())
+        {
+            catchUpUps = catchUp.getUps();
+            catchUpTime = catchUp.getCatchUp();
+            catchUpDilation = catchUp.getDilation();
+            catchUpAdaptive = catchUp.getAdaptive();
+            
+            catchUpDesc = String.format("catch up %.0f ms, dilated %.0f ms, adaptive %.0f ms at %d UPS", catchUpTime, catchUpDilation, catchUpAdaptive, catchUpUps);
+            catchUpWidth = graphics.getFontMetrics().stringWidth(catchUpDesc);
+        }
+        
+        y -= height;
+        
+        renderCounterLine(graphics, catchUpDesc, catchUpWidth, y, height);
+        
+        //the time to show each frame goes above
+        if (presentDesc == null || presentDescTime != presentTime)
+        {
+            presentDescTime = presentTime;
+            presentDesc = String.format("present %.2f ms, %s", presentDescTime, (canvas != null) ? Shared.BUFFERS + " buffers" : "image");
+            presentWidth = graphics.getFontMetrics().stringWidth(presentDesc);
+        }
+        
+        y -= height;
+        
+        renderCounterLine(graphics, presentDesc, presentWidth, y, height);
+        
+        //the input lost because the game thread didn't keep up goes above
+        if (inputDesc == null || inputDropped != engine.getDroppedInput())
+        {
+            inputDropped = engine.getDroppedInput();
+            inputDesc = "input dropped " + inputDropped + " events";
+            inputWidth = graphics.getFontMetrics().stringWidth(inputDesc);
+        }
+        
+        y -= height;
+        
+        renderCounterLine(graphics, inputDesc, inputWidth, y, height);
+        
+        //the click latency goes above once a capture has been drawn
+        if (visibleLatency.getCount() == 0)
+            return;
+        
+        if (latencyDesc == null || latencyCount != visibleLatency.getCount())
+        {
+            latencyCount = visibleLatency.getCount();
+            latencyDesc = "click " + visibleLatency.getDesc();
+            latencyWidth = graphics.getFontMetrics().stringWidth(latencyDesc);
+        }
+        
+        y -= height;
+        
+        renderCounterLine(graphics, latencyDesc, latencyWidth, y, height);
+    }
+    
+    /**
+     * Draw 1 line of the frame counter against the right side of the screen
+     * @param graphics Graphics
+     * @param desc The text
+     * @param width The width of the text
+     * @param y The top of the line
+     * @param height The height of the line
+     */
+    private void renderCounterLine(final Graphics graphics, final String desc, final int width, final int y, final int height)
+    {
+        final int x = originalSizeWindow.width - width;
         
         graphics.setColor(Color.BLACK);
-        graphics.fillRect(tmp.x, tmp.y, tmp.width, tmp.height);
+        graphics.fillRect(x, y, width, height);
         graphics.setColor(Color.WHITE);
-        graphics.drawString(result, tmp.x, tmp.y + height - 2);
+        graphics.drawString(desc, x, y + height - 2);
+    }
+    
+    /**
+     * A capture was started, the latency is measured from the click until the end of the next frame drawn on the screen
+     * @param time The time of the click in nanoseconds from System.nanoTime(), 0 if the time isn't known
+     */
+    public void setCaptureStart(final long time)
+    {
+        if (time == 0)
+            return;
+        
+        captureLatency.add(System.nanoTime() - time);
+        
+        clickTime = time;
+    }
+    
+    /**
+     * Write the click latencies to Shared.LATENCY_FILE, only the first call writes the file
+     */
+    private void writeLatency()
+    {
+        if (Shared.LATENCY_FILE == null || !latencyWritten.compareAndSet(false, true))
+            return;
+        
+        PrintWriter writer = null;
+        
+        try
+        {
+            writer = new PrintWriter(new FileWriter(Shared.LATENCY_FILE));
+            
+            captureLatency.write(writer);
+            writer.println();
+            visibleLatency.write(writer);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            if (writer != null)
+                writer.close();
+        }
     }
     
     /**
@@ -332,13 +845,48 @@ public class Main extends Thread
     }
     
     /**
-     * Draw Image onto screen
+     * Show the frame on the screen and measure how long it took
      */
     private void drawScreen()
+    {
+        final long start = System.nanoTime();
+        
+        final boolean shown = (canvas != null) ? canvas.present() : drawImage();
+        
+        if (!shown)
+            return;
+        
+        final long time = System.nanoTime();
+        
+        presentTotal += (time - start);
+        presentCount++;
+        
+        //keep the average for the last second
+        if (time - presentTimer > NANO_SECONDS_PER_SECOND)
+        {
+            presentTime = (presentTotal / NANO_SECONDS_PER_MILLISECOND) / presentCount;
+            presentTimer = time;
+            presentTotal = 0;
+            presentCount = 0;
+        }
+        
+        //the capture from the last click is now on the screen
+        if (clickTime != 0)
+        {
+            visibleLatency.add(time - clickTime);
+            clickTime = 0;
+        }
+    }
+    
+    /**
+     * Draw Image onto screen
+     * @return true if the image was drawn
+     */
+    private boolean drawImage()
     {
         //if no image has been rendered yet return
         if (bufferedImage == null)
-            return;
+            return false;
         
         //cache graphics object to save resources
         if (graphics == null)
@@ -367,10 +915,14 @@ public class Main extends Thread
 
             //release pixel data
             bufferedImage.flush();
+            
+            return true;
         }
         catch(Exception e)
         {
             e.printStackTrace();
+            
+            return false;
         }
     }
     
@@ -379,8 +931,31 @@ public class Main extends Thread
      */
     public void dispose()
     {
+        writeLatency();
+        
+        //stop the render thread before everything it draws is gone
+        final Thread thread = renderThread;
+        renderThread = null;
+        
+        if (thread != null)
+        {
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        
         engine.dispose();
         engine = null;
+        
+        if (canvas != null)
+            canvas.dispose();
+        
+        canvas = null;
         originalSizeWindow = null;
         fullSizeWindow = null;
         currentWindow = null;
@@ -2,6 +2,8 @@ package com.gamesbykevin.jezzball.main;
 
 import com.gamesbykevin.framework.resources.*;
 
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Image;
@@ -132,22 +134,24 @@ public class Resources
     
     /**
      * Get random background
+     * @param random Object used to pick the background
      * @return Image
      */
-    public Image getGameBackground()
+    public Image getGameBackground(final SeededRandom random)
     {
-        final int index = (int)(Math.random() * GameBackgrounds.values().length);
+        final int index = random.nextInt(GameBackgrounds.values().length);
         
         return getResources(Type.GameBackgrounds).getImage(GameBackgrounds.values()[index]);
     }
     
     /**
      * Get random game ball
+     * @param random Object used to pick the ball
      * @return Image
      */
-    public Image getGameBall()
+    public Image getGameBall(final SeededRandom random)
     {
-        final int index = (int)(Math.random() * GameBalls.values().length);
+        final int index = random.nextInt(GameBalls.values().length);
         
         return getResources(Type.GameBalls).getImage(GameBalls.values()[index]);
     }
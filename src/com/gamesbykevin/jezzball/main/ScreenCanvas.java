@@ -0,0 +1,159 @@
+package com.gamesbykevin.jezzball.main;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+
+/**
+ * Shows the frames on the screen by page flipping instead of drawing an image onto the graphics of the applet or panel.
+ * Each frame is drawn into a VolatileImage kept on the graphics card, then scaled into the back buffer of a BufferStrategy and shown.
+ * Both can lose their contents at any time, for example when the display mode changes.
+ * Every frame is drawn from nothing so a frame that was lost is skipped and the next frame puts everything back.
+ * The present line of the frame counter shows the time to show each frame, run again with -Djezzball.bufferstrategy=false to compare with the image.
+ * @author GOD
+ */
+public final class ScreenCanvas extends Canvas
+{
+    private static final long serialVersionUID = 1L;
+    
+    //the size of the image the frames are drawn into
+    private final int imageWidth, imageHeight;
+    
+    //the number of buffers to flip between
+    private final int buffers;
+    
+    //the image the frame is drawn into, created once the canvas is displayed
+    private VolatileImage image;
+    
+    //Graphics object used to draw the image
+    private Graphics imageGraphics;
+    
+    //flips the frames onto the screen, created once the canvas is displayed
+    private BufferStrategy strategy;
+    
+    /**
+     * Create a new canvas
+     * @param imageWidth The width the frames are drawn at
+     * @param imageHeight The height the frames are drawn at
+     * @param buffers The number of buffers to flip between, 2 or 3
+     */
+    public ScreenCanvas(final int imageWidth, final int imageHeight, final int buffers)
+    {
+        if (buffers < 2 || buffers > 3)
+            throw new IllegalArgumentException("The number of buffers has to be 2 or 3, buffers = " + buffers);
+        
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.buffers = buffers;
+        
+        //every frame covers the whole canvas so it is never painted by the event thread
+        setIgnoreRepaint(true);
+        setBackground(Color.BLACK);
+    }
+    
+    /**
+     * Get the Graphics object to draw the next frame into
+     * @return Graphics, null if the canvas isn't displayed yet
+     */
+    public Graphics getImageGraphics()
+    {
+        final GraphicsConfiguration configuration = getGraphicsConfiguration();
+        
+        //the image can only be created for the screen the canvas is on
+        if (configuration == null || !isDisplayable())
+            return null;
+        
+        //the image is created again if it can't be used on this screen, if only restored the frame draws over it anyway
+        if (image == null || image.validate(configuration) == VolatileImage.IMAGE_INCOMPATIBLE)
+        {
+            disposeImage();
+            
+            image = configuration.createCompatibleVolatileImage(imageWidth, imageHeight);
+        }
+        
+        if (imageGraphics == null)
+            imageGraphics = image.getGraphics();
+        
+        return imageGraphics;
+    }
+    
+    /**
+     * Show the frame drawn with getImageGraphics() on the screen
+     * @return true if the frame is on the screen, false if it was lost and skipped
+     */
+    public boolean present()
+    {
+        if (image == null || !isDisplayable())
+            return false;
+        
+        //the strategy can only be created once the canvas is displayed, and again if the canvas was displayed again when switching full screen
+        if (strategy == null || strategy != getBufferStrategy())
+        {
+            createBufferStrategy(buffers);
+            strategy = getBufferStrategy();
+            
+            //the keys go to the canvas now that it covers the applet or panel
+            requestFocusInWindow();
+        }
+        
+        //the image was lost while the frame was drawn
+        if (image.contentsLost())
+            return false;
+        
+        do
+        {
+            //the back buffer can be lost while drawing, if so it is drawn again
+            do
+            {
+                final Graphics graphics = strategy.getDrawGraphics();
+                
+                try
+                {
+                    graphics.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+                }
+                finally
+                {
+                    graphics.dispose();
+                }
+            }
+            while (strategy.contentsRestored());
+            
+            strategy.show();
+        }
+        while (strategy.contentsLost());
+        
+        return true;
+    }
+    
+    /**
+     * Free the image and its Graphics object
+     */
+    private void disposeImage()
+    {
+        if (imageGraphics != null)
+            imageGraphics.dispose();
+        
+        imageGraphics = null;
+        
+        if (image != null)
+            image.flush();
+        
+        image = null;
+    }
+    
+    /**
+     * Free up resources
+     */
+    public void dispose()
+    {
+        disposeImage();
+        
+        if (strategy != null)
+            strategy.dispose();
+        
+        strategy = null;
+    }
+}
\ No newline at end of file
@@ -2,40 +2,48 @@ package com.gamesbykevin.jezzball.manager;
 
 import com.gamesbykevin.framework.util.TimerCollection;
 
+import com.gamesbykevin.jezzball.balls.BallEngine;
 import com.gamesbykevin.jezzball.balls.BallManager;
 import com.gamesbykevin.jezzball.board.Board;
 import com.gamesbykevin.jezzball.main.Engine;
 import com.gamesbykevin.jezzball.main.Resources;
-import com.gamesbykevin.jezzball.main.Resources.PlayerImage;
 import com.gamesbykevin.jezzball.menu.CustomMenu;
 import com.gamesbykevin.jezzball.menu.CustomMenu.LayerKey;
 import com.gamesbykevin.jezzball.menu.CustomMenu.OptionKey;
+import com.gamesbykevin.jezzball.player.Capture;
 import com.gamesbykevin.jezzball.player.Player;
-import java.awt.Color;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+import com.gamesbykevin.jezzball.shared.Shared;
+import com.gamesbykevin.jezzball.simulation.Simulation;
+import com.gamesbykevin.jezzball.simulation.TimeWarp;
 
-import java.awt.Graphics;
+import java.awt.Image;
 import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * The parent class that contains all of the game elements
+ * The parent class that contains all of the game elements.
+ * The game rules are in the Simulation, this plays the sound, keeps the time and copies what is drawn into a Snapshot.
  * @author GOD
  */
 public class Manager 
 {
-    //object that manages all of the balls
-    private BallManager ballManager;
+    //the balls, board and capture
+    private final Simulation simulation;
     
-    //player containing lives etx...
-    private Player player;
+    //the image of each ball and the background image for the level
+    private final List<Image> ballImages = new ArrayList<>();
+    private Image background;
     
-    //game board that has all of the boundaries
-    private Board board;
+    //reads the mouse
+    private Player player;
     
     //the game itself will be played inside here
     private Rectangle container;
     
-    //the visual display how close we are till level complete
-    private Rectangle progressBar;
+    //where the game is drawn on the screen
+    private final Viewport viewport;
     
     //the current level
     private int level = 0;
@@ -57,6 +65,9 @@ public class Manager
     //the list of all the timers we are to use
     private final TimerCollection timers;
     
+    //picks the images, kept apart from the game so drawing never changes how the game plays
+    private final SeededRandom imageRandom;
+    
     /**
      * Keys identifying each timer
      */
@@ -77,6 +88,33 @@ public class Manager
     //this will determine if the game has ended
     private boolean gameover = false;
     
+    //how many nanoseconds are shown as 1 second of the timer
+    private static final long NANO_SECONDS_PER_SECOND = TimerCollection.toNanoSeconds(1000L);
+    
+    //the timer text, kept between snapshots so copying doesn't create garbage
+    private String timeDesc, nextLevelDesc;
+    
+    //the seconds shown in the timer text, the text is only made again when they change
+    private long timeDescSeconds = -1, nextLevelDescSeconds = -1;
+    
+    //the area of the board that changed since the renderer last drew a snapshot
+    private final Rectangle damage = new Rectangle();
+    
+    //the area of the board that changed in this snapshot
+    private final Rectangle change = new Rectangle();
+    
+    //did an area of the board change since the renderer last drew a snapshot
+    private boolean damaged = false;
+    
+    //the location of each ball before the last update, kept so the frames can be drawn between the updates
+    private double[] previousX = new double[0], previousY = new double[0];
+    
+    //the number of balls before the last update
+    private int previousCount = 0;
+    
+    //did the balls and player move in the last update, if not they are drawn where they are
+    private boolean moved = false;
+    
     public Manager(Engine engine) throws Exception
     {
         //create new timer list
@@ -107,20 +145,32 @@ public class Manager
         //once level is complete 5 seconds until next level
         this.timers.add(Key.NextLevel, TimerCollection.toNanoSeconds(5000L));
         
-        //the container the game will be inside
-        this.container = new Rectangle(0, 100, 500, 400);
+        //the container the game will be inside, the size can be changed at runtime
+        this.container = new Rectangle(Shared.VIEW.x, Shared.VIEW.y, Shared.ARENA_WIDTH, Shared.ARENA_HEIGHT);
         
-        //create a new list of balls
-        ballManager = new BallManager();
+        //large containers are scaled down to fit in the view
+        this.viewport = new Viewport(Shared.VIEW, container);
         
-        //the board where game play will occur
-        board = new Board();
+        //pick the seed for the level layouts
+        final long seed = getSeed(engine);
+        
+        //the balls, board and capture
+        this.simulation = new Simulation(container, seed, Shared.BOARD_CELL_SIZE);
+        
+        //the images don't use the same numbers as the game
+        this.imageRandom = new SeededRandom(~seed);
         
         //enable cheat if turned on
-        ballManager.setCheatEnabled(engine.getMenu().getOptionSelectionIndex(LayerKey.Options, OptionKey.Cheat) == CustomMenu.CHEAT_ENABLED);
+        getBallManager().setCheatEnabled(engine.getMenu().getOptionSelectionIndex(LayerKey.Options, OptionKey.Cheat) == CustomMenu.CHEAT_ENABLED);
+        
+        //balls bounce off each other if turned on
+        getBallManager().setCollisionsEnabled(engine.getMenu().getOptionSelectionIndex(LayerKey.Options, OptionKey.Collisions) == CustomMenu.COLLISIONS_ENABLED);
+        
+        //start captures while others are in progress if turned on
+        simulation.getCapture().setMultiWall(engine.getMenu().getOptionSelectionIndex(LayerKey.Options, OptionKey.MultiWall) == CustomMenu.MULTI_WALL_ENABLED);
         
         //new instance of player
-        player = new Player(engine.getResources().getPlayerImage(PlayerImage.Horizontal), engine.getResources().getPlayerImage(PlayerImage.Vertical));
+        player = new Player(viewport);
         
         //setup variables for the current level
         nextLevel(engine.getResources());
@@ -141,29 +191,56 @@ public class Manager
         if (timers.getTimer(Key.Countdown) != null)
             timers.setRemaining(Key.Countdown, TIME_PER_BALL * level);
         
-        //reset the number of lives
-        player.setLives(this.livesIndex);
+        //a scaled down arena captures faster so it looks the same on the screen
+        final double captureSpeed = Capture.CaptureSpeed.values()[captureSpeedIndex].getValue() / viewport.getScale();
         
-        //set the capture speed
-        player.setSpeed(this.captureSpeedIndex);
+        //reset the lives, capture and balls and create the board
+        simulation.reset(level, sizeIndex, speedIndex, livesIndex, captureSpeed);
         
-        //make sure player isn't still capturing
-        if (player.hasCapture())
-            player.switchCapture();
+        //each level picks the same images for the same seed
+        imageRandom.reset(level);
         
-        //reset the list of balls to include the correct total inside the given container
-        ballManager.reset(container, level, sizeIndex, speedIndex);
+        //pick a random image for each ball
+        ballImages.clear();
         
-        //reset board, must reset ballManager first
-        board.reset(container, ballManager.getBalls());
+        for (int i = 0; i < getBallManager().getCount(); i++)
+        {
+            ballImages.add(resources.getGameBall(imageRandom));
+        }
         
         //set random background Image
-        board.setImage(resources.getGameBackground());
+        background = resources.getGameBackground(imageRandom);
+    }
+    
+    /**
+     * Pick the seed for a new game
+     * @param engine Object containing the menu and the previous game
+     * @return The seed of the previous game if repeating, the seed set at runtime, otherwise a new seed
+     */
+    private static long getSeed(final Engine engine)
+    {
+        if (engine.getMenu().getOptionSelectionIndex(LayerKey.Options, OptionKey.Seed) == CustomMenu.SEED_REPEAT && engine.getManager() != null)
+            return engine.getManager().getRandom().getSeed();
+        
+        if (Shared.SEED != null)
+            return Shared.SEED;
+        
+        return SeededRandom.createSeed();
+    }
+    
+    public SeededRandom getRandom()
+    {
+        return simulation.getRandom();
+    }
+    
+    public Simulation getSimulation()
+    {
+        return this.simulation;
     }
     
     public BallManager getBallManager()
     {
-        return this.ballManager;
+        return simulation.getBalls();
     }
     
     /**
@@ -171,7 +248,7 @@ public class Manager
      */
     public void dispose()
     {
-        
+        simulation.dispose();
     }
     
     private void checkGameOver()
@@ -179,7 +256,7 @@ public class Manager
         //if the game isn't over check if it should be
         if (!gameover)
         {
-            if (!player.hasLives())
+            if (!simulation.getCapture().hasLives())
                 gameover = true;
             
             if (timers.getTimer(Key.Countdown) != null && timers.getTimer(Key.Countdown).hasTimePassed())
@@ -187,8 +264,51 @@ public class Manager
         }
     }
     
+    /**
+     * The game isn't updated while the menu is shown so nothing moved in the last update
+     */
+    public void pause()
+    {
+        moved = false;
+    }
+    
+    /**
+     * Keep the location of each ball before the update
+     */
+    private void keepPrevious()
+    {
+        final BallEngine engine = getBallManager().getEngine();
+        
+        previousCount = engine.getCount();
+        
+        if (previousX.length < previousCount)
+        {
+            previousX = new double[previousCount];
+            previousY = new double[previousCount];
+        }
+        
+        for (int i = 0; i < previousCount; i++)
+        {
+            previousX[i] = engine.getX(i);
+            previousY[i] = engine.getY(i);
+        }
+    }
+    
+    /**
+     * Update the timer by the time the update covers, the updates per second can be lowered while the game is played
+     * @param engine Object containing the time each update covers
+     * @param key The key of the timer
+     */
+    private void updateTimer(final Engine engine, final Key key)
+    {
+        timers.getTimer(key).update(engine.getMain().getTimeDeductionPerUpdate());
+    }
+    
     public void update(Engine engine) throws Exception
     {
+        //nothing moves unless the balls and player are updated below
+        moved = false;
+        
         if (!gameover)
         {
             //check if the game has ended
@@ -204,13 +324,13 @@ public class Manager
             return;
         
         //if we haven't reached the goal yet update the appropriate elements
-        if (!board.hasGoal())
+        if (!simulation.getBoard().hasGoal())
         {
             //make sure timer exists before updating/checking
             if (timers.getTimer(Key.Countdown) != null)
             {
-                timers.update(Key.Countdown);
-
+                updateTimer(engine, Key.Countdown);
+                
                 //this will prevent the countdown from going negative
                 if (timers.getTimer(Key.Countdown).hasTimePassed())
                     timers.getTimer(Key.Countdown).setRemaining(0);
@@ -218,21 +338,41 @@ public class Manager
 
             //make sure timer exists before updating/checking
             if (timers.getTimer(Key.Free) != null)
-                timers.update(Key.Free);
+                updateTimer(engine, Key.Free);
             
-            //update the locations of all the balls and keep the boundaries in mind
-            ballManager.update(engine.getResources(), board, player);
-
-            //update the mouse location etc..
-            player.update(engine.getMouse(), board, ballManager.getBalls(), engine.getResources());
+            //the amount of time this update covers
+            final double delta = engine.getMain().getUpdateDelta();
+            
+            //the frames are drawn between where the balls were and where they will be
+            keepPrevious();
+            moved = true;
+            
+            //move the balls and the capture with the commands from the mouse
+            final int events = simulation.step(player.update(engine.getMouse()), delta);
+            
+            //measure the time from the click to the capture being drawn
+            if ((events & Simulation.EVENT_START) != 0)
+                engine.getMain().setCaptureStart(engine.getInputTime());
+            
+            //no sound effects while the time is warped, there would be too many to hear
+            if (engine.getMain().getTimeWarp() != TimeWarp.Normal)
+                return;
+            
+            //play hit sound effect
+            if ((events & Simulation.EVENT_HIT) != 0)
+                engine.getResources().getGameAudio(Resources.GameAudio.Hit).play();
+            
+            //play fix sound effect
+            if ((events & Simulation.EVENT_CAPTURE) != 0)
+                engine.getResources().getGameAudio(Resources.GameAudio.Fix).play();
             
             //if we have now reached the goal play win sound
-            if (board.hasGoal())
+            if ((events & Simulation.EVENT_GOAL) != 0)
                 engine.getResources().getGameAudio(Resources.GameAudio.Win).play();
         }
         else
         {
-            timers.update(Key.NextLevel);
+            updateTimer(engine, Key.NextLevel);
             
             //this will prevent the countdown from going negative
             if (timers.getTimer(Key.NextLevel).hasTimePassed())
@@ -243,122 +383,72 @@ public class Manager
         }
     }
     
-    public void render(Graphics graphics)
-    {
-        //first we draw the board with the boundaries
-        board.render(graphics);
-        
-        //draw these elements if the goal has not been reached
-        if (!board.hasGoal())
-        {
-            //then we draw all of the balls
-            ballManager.render(graphics);
-
-            //then we draw the player
-            player.render(graphics);
-        }
-        
-        //draw game information
-        this.renderInfo(graphics);
-    }
-    
     /**
-     * Draw the game information here
-     * The following will be drawn
-     * 
-     * 1. Progress towards goal
-     * 2. Level #
-     * 3. # of balls
-     * 4. Lives remaining
-     * 5. Cheat enabled
-     * 6. Time remaining/passed
-     * 7. Countdown till next level
-     * @param graphics 
+     * Copy what is drawn into the snapshot, once copied the snapshot doesn't read the game
+     * @param snapshot The snapshot to copy into
+     * @param caughtUp Has the renderer taken every snapshot published so far,
+     * if not the area of the board that changed is kept for the next snapshot so the skipped changes are still drawn
      */
-    private void renderInfo(Graphics graphics)
+    public void publish(final Snapshot snapshot, final boolean caughtUp)
     {
-        if (this.progressBar == null)
-            this.progressBar = new Rectangle(10, 10, 200, graphics.getFontMetrics().getHeight());
-        
-        int x, y;
-        String desc;
-        
-        //draw progress
-        graphics.setColor(Color.red);
-        graphics.fillRect(progressBar.x, progressBar.y, (int)(progressBar.width * board.getProgress()), progressBar.height);
-        
-        //draw goal
-        x = progressBar.x + (int)(progressBar.width * board.getGoal());
-        graphics.setColor(Color.GREEN);
-        graphics.drawLine(x, progressBar.y, x, progressBar.y + progressBar.height);
-        
-        //draw progress bar
-        graphics.setColor(Color.BLUE);
-        graphics.drawRect(progressBar.x, progressBar.y, progressBar.width, progressBar.height);
-        
-        graphics.setColor(Color.WHITE);
-        graphics.drawString("Goal", progressBar.x + progressBar.width + 5, progressBar.y + progressBar.height);
-        
-        //draw Level #
-        x = progressBar.x;
-        y = progressBar.y + (progressBar.height * 2) + 5;
-        desc = "Level = " + level + ", ";
-        graphics.setColor(Color.WHITE);
-        graphics.drawString(desc, x, y);
-        
-        //draw ball count
-        x += graphics.getFontMetrics().stringWidth(desc);
-        desc = "Balls = " + ballManager.getCount()+ ", ";
-        graphics.drawString(desc, x, y);
-        
-        //draw lives remaining
-        x += graphics.getFontMetrics().stringWidth(desc);
-        desc = "Lives = " + player.getLives();
-        graphics.drawString(desc, x, y);
-        
-        //display we are cheating if enabled
-        if (ballManager.hasCheatEnabled())
-        {
-            x += graphics.getFontMetrics().stringWidth(desc);
-            desc = ", Cheat Enabled";
-            graphics.setColor(Color.GREEN);
-            graphics.drawString(desc, x, y);
-        }
+        final Board board = simulation.getBoard();
         
-        //draw timer
-        x = progressBar.x;
-        y = progressBar.y + (progressBar.height * 3) + 5;
-        desc = "Time: ";
+        //the renderer has drawn the changes in the snapshots before
+        if (caughtUp)
+            damaged = false;
         
-        if (timers.getTimer(Key.Countdown) != null)
-        {
-            desc += timers.getTimer(Key.Countdown).getDescRemaining(TimerCollection.FORMAT_6);
-        }
-        else
+        if (board.takeDamage(change))
         {
-            desc += timers.getTimer(Key.Free).getDescPassed(TimerCollection.FORMAT_6);
+            if (damaged)
+            {
+                damage.add(change);
+            }
+            else
+            {
+                damage.setBounds(change);
+                damaged = true;
+            }
         }
         
-        graphics.setColor(Color.WHITE);
-        graphics.drawString(desc, x, y);
+        //the timer changes every update, the text is only made again when the seconds shown change
+        final long seconds = (timers.getTimer(Key.Countdown) != null) ?
+            timers.getTimer(Key.Countdown).getRemaining() / NANO_SECONDS_PER_SECOND : timers.getTimer(Key.Free).getPassed() / NANO_SECONDS_PER_SECOND;
         
-        if (gameover)
+        if (timeDesc == null || seconds != timeDescSeconds)
         {
-            //draw gameover message
-            y = progressBar.y + (progressBar.height * 4) + 5;
-            desc = "Game Over!! Press \"Esc\" to access menu";
-            graphics.setColor(Color.RED);
-            graphics.drawString(desc, x, y);
+            timeDescSeconds = seconds;
+            
+            timeDesc = "Time: ";
+            
+            if (timers.getTimer(Key.Countdown) != null)
+            {
+                timeDesc += timers.getTimer(Key.Countdown).getDescRemaining(TimerCollection.FORMAT_6);
+            }
+            else
+            {
+                timeDesc += timers.getTimer(Key.Free).getDescPassed(TimerCollection.FORMAT_6);
+            }
+            
+            //the seed so the same game can be played again
+            timeDesc += ", Seed = " + getRandom().getSeed();
         }
         
-        //we have reached our goal so display the countdown till next level
-        if (board.hasGoal())
+        //the countdown till next level is only shown once the goal is reached
+        final long nextLevelSeconds = board.hasGoal() ? timers.getTimer(Key.NextLevel).getRemaining() / NANO_SECONDS_PER_SECOND : -1;
+        
+        if (nextLevelSeconds != nextLevelDescSeconds)
         {
-            y = progressBar.y + (progressBar.height * 4) + 5;
-            desc = "Next level begins in " + timers.getTimer(Key.NextLevel).getDescRemaining(TimerCollection.FORMAT_7);
-            
-            graphics.setColor(Color.WHITE);
-            graphics.drawString(desc, x, y);
+            nextLevelDescSeconds = nextLevelSeconds;
+            nextLevelDesc = board.hasGoal() ? "Next level begins in " + timers.getTimer(Key.NextLevel).getDescRemaining(TimerCollection.FORMAT_7) : null;
         }
+        
+        snapshot.setBoard(container, board, damage, damaged, background);
+        
+        //if a ball was added or removed the balls are drawn where they are
+        final boolean ballsMoved = (moved && previousCount == getBallManager().getCount());
+        
+        snapshot.setBalls(getBallManager().getEngine(), ballImages, ballsMoved ? previousX : null, ballsMoved ? previousY : null);
+        snapshot.setPlayer(player, simulation.getCapture(), moved);
+        snapshot.setInfo(level, simulation.getCapture().getLives(), getBallManager().hasCheatEnabled(), gameover, timeDesc, nextLevelDesc);
     }
 }
\ No newline at end of file
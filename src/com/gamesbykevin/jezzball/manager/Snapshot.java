@@ -0,0 +1,354 @@
+package com.gamesbykevin.jezzball.manager;
+
+import com.gamesbykevin.jezzball.balls.BallEngine;
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.player.Player;
+
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.util.List;
+
+/**
+ * A copy of everything drawn in 1 frame, the board, balls, player and game information.
+ * Only the Manager changes a snapshot, once it is published it isn't changed again until the renderer is finished with it,
+ * so a snapshot can be drawn on another thread while the game updates.
+ * The arrays are kept and only grow so nothing is created when a snapshot is copied.
+ * The balls and player are kept where they were in the update before as well so a frame can be drawn in between.
+ * @author GOD
+ */
+public final class Snapshot
+{
+    //the order the snapshots were published in, 0 if never published
+    private long sequence = 0;
+    
+    //the time the snapshot was published in nanoseconds from System.nanoTime()
+    private long time = 0;
+    
+    //the area the game is played in
+    private final Rectangle arena = new Rectangle();
+    
+    //the location and dimensions of the board
+    private final Rectangle board = new Rectangle();
+    
+    //the boundaries on the board
+    private final BoundaryStore store = new BoundaryStore();
+    
+    //the area of the board that changed since the renderer last drew a snapshot
+    private final Rectangle damage = new Rectangle();
+    
+    //did an area of the board change
+    private boolean damaged = false;
+    
+    //has the goal been reached and the progress towards it
+    private boolean goal = false;
+    private double progress, goalProgress;
+    
+    //the background image for the level
+    private Image background;
+    
+    //the number of balls and the location, size and image of each
+    private int ballCount = 0;
+    private double[] ballX = new double[0], ballY = new double[0], ballWidth = new double[0], ballHeight = new double[0];
+    private Image[] ballImages = new Image[0];
+    
+    //the location of each ball in the update before
+    private double[] ballPreviousX = new double[0], ballPreviousY = new double[0];
+    
+    //the location of the player in the arena now and in the update before, and the direction of the next capture
+    private double playerX, playerY, playerPreviousX, playerPreviousY;
+    private boolean horizontal;
+    
+    //the part of each line captured so far
+    private int captureCount = 0;
+    private Rectangle[] captures = new Rectangle[0];
+    
+    //the game information
+    private int level, lives;
+    private boolean cheat, gameover;
+    private String timeDesc, nextLevelDesc;
+    
+    /**
+     * Set the order and the time the snapshot was published in
+     * @param sequence The sequence, 1 for the first snapshot
+     * @param time The time in nanoseconds from System.nanoTime()
+     */
+    void setPublished(final long sequence, final long time)
+    {
+        this.sequence = sequence;
+        this.time = time;
+    }
+    
+    /**
+     * Copy the board
+     * @param arena The area the game is played in
+     * @param board The board containing the boundaries
+     * @param damage The area of the board that changed since the renderer last drew a snapshot
+     * @param damaged Did an area of the board change
+     * @param background The background image for the level
+     */
+    void setBoard(final Rectangle arena, final Board board, final Rectangle damage, final boolean damaged, final Image background)
+    {
+        this.arena.setBounds(arena);
+        this.board.setBounds(board.getX(), board.getY(), board.getWidth(), board.getHeight());
+        this.store.set(board.getStore());
+        this.damage.setBounds(damage);
+        this.damaged = damaged;
+        this.goal = board.hasGoal();
+        this.progress = board.getProgress();
+        this.goalProgress = board.getGoal();
+        this.background = background;
+    }
+    
+    /**
+     * Copy the balls
+     * @param engine The balls
+     * @param images The image of each ball, the index is the same as the engine
+     * @param previousX The x-coordinate of each ball in the update before, null if the balls didn't move in the last update
+     * @param previousY The y-coordinate of each ball in the update before, null if the balls didn't move in the last update
+     */
+    void setBalls(final BallEngine engine, final List<Image> images, final double[] previousX, final double[] previousY)
+    {
+        ballCount = Math.min(engine.getCount(), images.size());
+        
+        if (ballX.length < ballCount)
+        {
+            ballX      = new double[ballCount];
+            ballY      = new double[ballCount];
+            ballWidth  = new double[ballCount];
+            ballHeight = new double[ballCount];
+            ballImages = new Image[ballCount];
+            ballPreviousX = new double[ballCount];
+            ballPreviousY = new double[ballCount];
+        }
+        
+        for (int i = 0; i < ballCount; i++)
+        {
+            ballX[i]      = engine.getX(i);
+            ballY[i]      = engine.getY(i);
+            ballWidth[i]  = engine.getWidth(i);
+            ballHeight[i] = engine.getHeight(i);
+            ballImages[i] = images.get(i);
+            
+            //if the balls didn't move they are drawn where they are
+            ballPreviousX[i] = (previousX != null) ? previousX[i] : ballX[i];
+            ballPreviousY[i] = (previousY != null) ? previousY[i] : ballY[i];
+        }
+    }
+    
+    /**
+     * Copy the player and the captures in progress
+     * @param player The player
+     * @param capture The direction of the next capture and the progress of each capture
+     * @param moved Did the player move in the last update, if not the player is drawn where it is
+     */
+    void setPlayer(final Player player, final Capture capture, final boolean moved)
+    {
+        playerX = player.getX();
+        playerY = player.getY();
+        playerPreviousX = moved ? player.getPreviousX() : playerX;
+        playerPreviousY = moved ? player.getPreviousY() : playerY;
+        horizontal = capture.hasHorizontal();
+        
+        captureCount = capture.getCount();
+        
+        if (captures.length < captureCount)
+        {
+            final Rectangle[] tmp = new Rectangle[captureCount];
+            
+            for (int i = 0; i < tmp.length; i++)
+                tmp[i] = (i < captures.length) ? captures[i] : new Rectangle();
+            
+            captures = tmp;
+        }
+        
+        for (int i = 0; i < captureCount; i++)
+            captures[i].setBounds(capture.getLine(i).getCaptureBoundary());
+    }
+    
+    /**
+     * Copy the game information
+     * @param level The current level
+     * @param lives The lives remaining
+     * @param cheat Is the cheat enabled
+     * @param gameover Has the game ended
+     * @param timeDesc The time remaining or passed
+     * @param nextLevelDesc The countdown till the next level, null if the goal hasn't been reached
+     */
+    void setInfo(final int level, final int lives, final boolean cheat, final boolean gameover, final String timeDesc, final String nextLevelDesc)
+    {
+        this.level = level;
+        this.lives = lives;
+        this.cheat = cheat;
+        this.gameover = gameover;
+        this.timeDesc = timeDesc;
+        this.nextLevelDesc = nextLevelDesc;
+    }
+    
+    public long getSequence()
+    {
+        return this.sequence;
+    }
+    
+    public long getTime()
+    {
+        return this.time;
+    }
+    
+    public Rectangle getArena()
+    {
+        return this.arena;
+    }
+    
+    public Rectangle getBoard()
+    {
+        return this.board;
+    }
+    
+    public BoundaryStore getStore()
+    {
+        return this.store;
+    }
+    
+    /**
+     * Get the area of the board that changed since the renderer last drew a snapshot
+     * @return The area in board coordinates, only valid if hasDamage() is true
+     */
+    public Rectangle getDamage()
+    {
+        return this.damage;
+    }
+    
+    public boolean hasDamage()
+    {
+        return this.damaged;
+    }
+    
+    public boolean hasGoal()
+    {
+        return this.goal;
+    }
+    
+    public double getProgress()
+    {
+        return this.progress;
+    }
+    
+    public double getGoal()
+    {
+        return this.goalProgress;
+    }
+    
+    public Image getBackground()
+    {
+        return this.background;
+    }
+    
+    public int getBallCount()
+    {
+        return this.ballCount;
+    }
+    
+    /**
+     * Get the x-coordinate of the ball between the update before and the last update
+     * @param index The index of the ball
+     * @param alpha How far from the update before to the last update, 0 is the update before and 1 is the last update
+     * @return The x-coordinate in the arena
+     */
+    public double getBallX(final int index, final double alpha)
+    {
+        return ballPreviousX[index] + ((ballX[index] - ballPreviousX[index]) * alpha);
+    }
+    
+    /**
+     * Get the y-coordinate of the ball between the update before and the last update
+     * @param index The index of the ball
+     * @param alpha How far from the update before to the last update, 0 is the update before and 1 is the last update
+     * @return The y-coordinate in the arena
+     */
+    public double getBallY(final int index, final double alpha)
+    {
+        return ballPreviousY[index] + ((ballY[index] - ballPreviousY[index]) * alpha);
+    }
+    
+    public double getBallWidth(final int index)
+    {
+        return this.ballWidth[index];
+    }
+    
+    public double getBallHeight(final int index)
+    {
+        return this.ballHeight[index];
+    }
+    
+    public Image getBallImage(final int index)
+    {
+        return this.ballImages[index];
+    }
+    
+    /**
+     * Get the x-coordinate of the player between the update before and the last update
+     * @param alpha How far from the update before to the last update, 0 is the update before and 1 is the last update
+     * @return The x-coordinate in the arena
+     */
+    public double getPlayerX(final double alpha)
+    {
+        return playerPreviousX + ((playerX - playerPreviousX) * alpha);
+    }
+    
+    /**
+     * Get the y-coordinate of the player between the update before and the last update
+     * @param alpha How far from the update before to the last update, 0 is the update before and 1 is the last update
+     * @return The y-coordinate in the arena
+     */
+    public double getPlayerY(final double alpha)
+    {
+        return playerPreviousY + ((playerY - playerPreviousY) * alpha);
+    }
+    
+    public boolean hasHorizontal()
+    {
+        return this.horizontal;
+    }
+    
+    public int getCaptureCount()
+    {
+        return this.captureCount;
+    }
+    
+    public Rectangle getCapture(final int index)
+    {
+        return this.captures[index];
+    }
+    
+    public int getLevel()
+    {
+        return this.level;
+    }
+    
+    public int getLives()
+    {
+        return this.lives;
+    }
+    
+    public boolean hasCheatEnabled()
+    {
+        return this.cheat;
+    }
+    
+    public boolean hasGameover()
+    {
+        return this.gameover;
+    }
+    
+    public String getTimeDesc()
+    {
+        return this.timeDesc;
+    }
+    
+    public String getNextLevelDesc()
+    {
+        return this.nextLevelDesc;
+    }
+}
\ No newline at end of file
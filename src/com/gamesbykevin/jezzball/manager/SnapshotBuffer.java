@@ -0,0 +1,79 @@
+package com.gamesbykevin.jezzball.manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Passes snapshots from the thread that updates the game to the thread that draws it without either thread waiting.
+ * There are 3 snapshots, the one being copied, the one being drawn and the latest one published in between.
+ * Publishing swaps the copied snapshot with the one in between, taking the latest swaps the drawn snapshot with it,
+ * so the renderer always gets the latest snapshot and a snapshot is never changed while it is drawn.
+ * @author GOD
+ */
+public final class SnapshotBuffer
+{
+    //set on the snapshot in between when it hasn't been taken yet
+    private static final int FRESH = 4;
+    
+    //the snapshots, the index of each is kept by 1 of the 3 owners
+    private final Snapshot[] snapshots = {new Snapshot(), new Snapshot(), new Snapshot()};
+    
+    //the index of the snapshot in between, with FRESH if it was published after the last one was taken
+    private final AtomicInteger latest = new AtomicInteger(1);
+    
+    //the index of the snapshot being copied, only used by the thread that updates the game
+    private int back = 0;
+    
+    //the index of the snapshot being drawn, only used by the thread that draws the game
+    private int front = 2;
+    
+    //the number of snapshots published, only changed by the thread that updates the game
+    private long published = 0;
+    
+    //the sequence of the last snapshot taken to be drawn
+    private volatile long taken = 0;
+    
+    /**
+     * Get the snapshot to copy the game into, only to be called from the thread that updates the game
+     * @return The snapshot, the same object is returned until publish() is called
+     */
+    public Snapshot getBack()
+    {
+        return snapshots[back];
+    }
+    
+    /**
+     * Has the latest snapshot published been taken to be drawn, only to be called from the thread that updates the game.
+     * If not the snapshots in between were skipped and the changes in them have to be copied again.
+     * @return boolean
+     */
+    public boolean hasCaughtUp()
+    {
+        return (taken == published);
+    }
+    
+    /**
+     * Publish the snapshot from getBack(), only to be called from the thread that updates the game
+     */
+    public void publish()
+    {
+        snapshots[back].setPublished(++published, System.nanoTime());
+        
+        back = latest.getAndSet(back | FRESH) & ~FRESH;
+    }
+    
+    /**
+     * Get the latest snapshot published, only to be called from the thread that draws the game
+     * @return The snapshot, it won't be changed until this is called again
+     */
+    public Snapshot getFront()
+    {
+        if ((latest.get() & FRESH) != 0)
+            front = latest.getAndSet(front) & ~FRESH;
+        
+        final Snapshot snapshot = snapshots[front];
+        
+        taken = snapshot.getSequence();
+        
+        return snapshot;
+    }
+}
\ No newline at end of file
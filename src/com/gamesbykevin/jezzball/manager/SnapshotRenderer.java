@@ -0,0 +1,209 @@
+package com.gamesbykevin.jezzball.manager;
+
+import com.gamesbykevin.jezzball.balls.BallRenderer;
+import com.gamesbykevin.jezzball.board.BoardRenderer;
+import com.gamesbykevin.jezzball.main.Resources;
+import com.gamesbykevin.jezzball.main.Resources.PlayerImage;
+import com.gamesbykevin.jezzball.player.PlayerRenderer;
+import com.gamesbykevin.jezzball.shared.Shared;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * Draws the game from a snapshot.
+ * Nothing here reads the game itself so the frames can be drawn on another thread while the game updates,
+ * the images and text are kept between frames so drawing doesn't create garbage.
+ * @author GOD
+ */
+public final class SnapshotRenderer
+{
+    //draws the board with the boundaries
+    private final BoardRenderer boardRenderer = new BoardRenderer();
+    
+    //draws the balls
+    private final BallRenderer ballRenderer = new BallRenderer();
+    
+    //draws the player
+    private final PlayerRenderer playerRenderer;
+    
+    //where the game is drawn on the screen, created again if the arena changes
+    private Viewport viewport;
+    
+    //the visual display how close we are till level complete
+    private Rectangle progressBar;
+    
+    //the game information, kept between frames so drawing doesn't create garbage
+    private String levelDesc, ballsDesc, livesDesc;
+    
+    //the width of the game information on the screen
+    private int levelDescWidth, ballsDescWidth, livesDescWidth;
+    
+    //the values the game information was made for
+    private int levelDescValue = -1, ballsDescValue = -1, livesDescValue = Integer.MIN_VALUE;
+    
+    /**
+     * Create a new renderer
+     * @param resources Object containing the images for the player
+     */
+    public SnapshotRenderer(final Resources resources)
+    {
+        this.playerRenderer = new PlayerRenderer(resources.getPlayerImage(PlayerImage.Horizontal), resources.getPlayerImage(PlayerImage.Vertical));
+    }
+    
+    /**
+     * Free up resources
+     */
+    public void dispose()
+    {
+        if (viewport != null)
+            viewport.dispose();
+        
+        viewport = null;
+    }
+    
+    /**
+     * Draw the game
+     * @param graphics Graphics object for the screen
+     * @param snapshot The game to draw
+     * @param alpha How far from the update before to the last update the balls and player are drawn, 1 is where the last update left them
+     */
+    public void render(final Graphics graphics, final Snapshot snapshot, final double alpha)
+    {
+        //large arenas are scaled down to fit in the view
+        if (viewport == null || !viewport.getArena().equals(snapshot.getArena()))
+        {
+            dispose();
+            
+            viewport = new Viewport(Shared.VIEW, snapshot.getArena());
+            boardRenderer.setScale(viewport.getScale());
+        }
+        
+        //the board and balls are drawn in arena coordinates
+        final Graphics2D arena = viewport.getGraphics(graphics);
+        
+        //first we draw the board with the boundaries
+        boardRenderer.render(arena, snapshot);
+        
+        //draw these elements if the goal has not been reached
+        if (!snapshot.hasGoal())
+        {
+            //then we draw all of the balls
+            ballRenderer.render(arena, snapshot, alpha);
+            
+            //then we draw the player
+            playerRenderer.render(graphics, viewport, snapshot, alpha);
+        }
+        
+        //draw game information
+        this.renderInfo(graphics, snapshot);
+    }
+    
+    /**
+     * Draw the game information here
+     * The following will be drawn
+     *
+     * 1. Progress towards goal
+     * 2. Level #
+     * 3. # of balls
+     * 4. Lives remaining
+     * 5. Cheat enabled
+     * 6. Time remaining/passed
+     * 7. Countdown till next level
+     * @param graphics
+     * @param snapshot The game information
+     */
+    private void renderInfo(final Graphics graphics, final Snapshot snapshot)
+    {
+        if (this.progressBar == null)
+            this.progressBar = new Rectangle(10, 10, 200, graphics.getFontMetrics().getHeight());
+        
+        int x, y;
+        
+        //draw progress
+        graphics.setColor(Color.red);
+        graphics.fillRect(progressBar.x, progressBar.y, (int)(progressBar.width * snapshot.getProgress()), progressBar.height);
+        
+        //draw goal
+        x = progressBar.x + (int)(progressBar.width * snapshot.getGoal());
+        graphics.setColor(Color.GREEN);
+        graphics.drawLine(x, progressBar.y, x, progressBar.y + progressBar.height);
+        
+        //draw progress bar
+        graphics.setColor(Color.BLUE);
+        graphics.drawRect(progressBar.x, progressBar.y, progressBar.width, progressBar.height);
+        
+        graphics.setColor(Color.WHITE);
+        graphics.drawString("Goal", progressBar.x + progressBar.width + 5, progressBar.y + progressBar.height);
+        
+        //the text only changes when the value changes
+        if (snapshot.getLevel() != levelDescValue)
+        {
+            levelDescValue = snapshot.getLevel();
+            levelDesc = "Level = " + levelDescValue + ", ";
+            levelDescWidth = graphics.getFontMetrics().stringWidth(levelDesc);
+        }
+        
+        if (snapshot.getBallCount() != ballsDescValue)
+        {
+            ballsDescValue = snapshot.getBallCount();
+            ballsDesc = "Balls = " + ballsDescValue + ", ";
+            ballsDescWidth = graphics.getFontMetrics().stringWidth(ballsDesc);
+        }
+        
+        if (snapshot.getLives() != livesDescValue)
+        {
+            livesDescValue = snapshot.getLives();
+            livesDesc = "Lives = " + livesDescValue;
+            livesDescWidth = graphics.getFontMetrics().stringWidth(livesDesc);
+        }
+        
+        //draw Level #
+        x = progressBar.x;
+        y = progressBar.y + (progressBar.height * 2) + 5;
+        graphics.setColor(Color.WHITE);
+        graphics.drawString(levelDesc, x, y);
+        
+        //draw ball count
+        x += levelDescWidth;
+        graphics.drawString(ballsDesc, x, y);
+        
+        //draw lives remaining
+        x += ballsDescWidth;
+        graphics.drawString(livesDesc, x, y);
+        
+        //display we are cheating if enabled
+        if (snapshot.hasCheatEnabled())
+        {
+            x += livesDescWidth;
+            graphics.setColor(Color.GREEN);
+            graphics.drawString(", Cheat Enabled", x, y);
+        }
+        
+        //draw timer
+        x = progressBar.x;
+        y = progressBar.y + (progressBar.height * 3) + 5;
+        
+        graphics.setColor(Color.WHITE);
+        graphics.drawString(snapshot.getTimeDesc(), x, y);
+        
+        if (snapshot.hasGameover())
+        {
+            //draw gameover message
+            y = progressBar.y + (progressBar.height * 4) + 5;
+            graphics.setColor(Color.RED);
+            graphics.drawString("Game Over!! Press \"Esc\" to access menu", x, y);
+        }
+        
+        //we have reached our goal so display the countdown till next level
+        if (snapshot.hasGoal() && snapshot.getNextLevelDesc() != null)
+        {
+            y = progressBar.y + (progressBar.height * 4) + 5;
+            
+            graphics.setColor(Color.WHITE);
+            graphics.drawString(snapshot.getNextLevelDesc(), x, y);
+        }
+    }
+}
\ No newline at end of file
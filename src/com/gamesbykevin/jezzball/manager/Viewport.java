@@ -0,0 +1,131 @@
+package com.gamesbykevin.jezzball.manager;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * Maps the arena onto the area of the window it is drawn in.
+ * Arenas larger than the window are scaled down to fit, smaller arenas are drawn at their own size.
+ * @author GOD
+ */
+public final class Viewport
+{
+    //the area of the window the arena is drawn in
+    private final Rectangle view;
+    
+    //the area the game is played in
+    private final Rectangle arena;
+    
+    //the size of 1 arena pixel on the screen
+    private final double scale;
+    
+    //the Graphics object for the screen and its copy in arena coordinates, kept between frames
+    private Graphics screen;
+    private Graphics2D graphics;
+    
+    /**
+     * Create a new viewport
+     * @param view The area of the window the arena is drawn in
+     * @param arena The area the game is played in
+     */
+    public Viewport(final Rectangle view, final Rectangle arena)
+    {
+        this.view = new Rectangle(view);
+        this.arena = new Rectangle(arena);
+        
+        //only scale down if the arena doesn't fit
+        this.scale = Math.min(1.0, Math.min((double)view.width / arena.width, (double)view.height / arena.height));
+    }
+    
+    public Rectangle getView()
+    {
+        return this.view;
+    }
+    
+    public Rectangle getArena()
+    {
+        return this.arena;
+    }
+    
+    public double getScale()
+    {
+        return this.scale;
+    }
+    
+    /**
+     * Convert the x-coordinate on the screen to the arena
+     * @param x x-coordinate on the screen
+     * @return x-coordinate in the arena
+     */
+    public int toArenaX(final int x)
+    {
+        return arena.x + (int)((x - view.x) / scale);
+    }
+    
+    /**
+     * Convert the y-coordinate on the screen to the arena
+     * @param y y-coordinate on the screen
+     * @return y-coordinate in the arena
+     */
+    public int toArenaY(final int y)
+    {
+        return arena.y + (int)((y - view.y) / scale);
+    }
+    
+    /**
+     * Convert the x-coordinate in the arena to the screen
+     * @param x x-coordinate in the arena
+     * @return x-coordinate on the screen
+     */
+    public int toScreenX(final double x)
+    {
+        return view.x + (int)((x - arena.x) * scale);
+    }
+    
+    /**
+     * Convert the y-coordinate in the arena to the screen
+     * @param y y-coordinate in the arena
+     * @return y-coordinate on the screen
+     */
+    public int toScreenY(final double y)
+    {
+        return view.y + (int)((y - arena.y) * scale);
+    }
+    
+    /**
+     * Get a copy of the Graphics object that draws in arena coordinates.
+     * The copy is kept and returned again every frame the screen is drawn with the same Graphics object,
+     * so it must not be disposed, dispose() will dispose it once it is no longer needed.
+     * @param graphics Graphics object for the screen
+     * @return Graphics object for the arena
+     */
+    public Graphics2D getGraphics(final Graphics graphics)
+    {
+        if (graphics != screen)
+        {
+            dispose();
+            
+            this.screen = graphics;
+            this.graphics = (Graphics2D)graphics.create();
+            
+            this.graphics.translate(view.x, view.y);
+            this.graphics.scale(scale, scale);
+            this.graphics.translate(-arena.x, -arena.y);
+        }
+        
+        return this.graphics;
+    }
+    
+    /**
+     * Dispose the copy of the Graphics object for the arena
+     */
+    public void dispose()
+    {
+        if (graphics != null)
+            graphics.dispose();
+        
+        graphics = null;
+        screen = null;
+    }
+}
\ No newline at end of file
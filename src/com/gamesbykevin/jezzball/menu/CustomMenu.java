@@ -41,7 +41,7 @@ public class CustomMenu extends Menu
     {
         Sound, FullScreen, StartGame, Options, Controls, Instructions, Credits, GoBack, Resume, 
         NewGame, ExitGame, NewGameConfim, NewGameDeny, ExitGameConfirm, ExitGameDeny, 
-        Cheat, Mode, BallSpeed, BallSize, CaptureSpeed, Lives, LevelStart
+        Cheat, Mode, BallSpeed, BallSize, CaptureSpeed, Lives, LevelStart, Collisions, MultiWall, Seed
     }
     
     //unique key to indentify each Layer
@@ -65,6 +65,15 @@ public class CustomMenu extends Menu
     //cheating meaning the balls dont move
     public static final int CHEAT_ENABLED = 1;
     
+    //balls bounce off each other
+    public static final int COLLISIONS_ENABLED = 1;
+    
+    //start a capture while another is in progress
+    public static final int MULTI_WALL_ENABLED = 1;
+    
+    //play the same level layouts as the last game
+    public static final int SEED_REPEAT = 1;
+    
     public CustomMenu(final Engine engine) throws Exception
     {
         super(engine.getMain().getScreen());
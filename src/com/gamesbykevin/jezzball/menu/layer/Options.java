@@ -10,8 +10,8 @@ import com.gamesbykevin.jezzball.main.Engine;
 import com.gamesbykevin.jezzball.main.Resources;
 import com.gamesbykevin.jezzball.manager.Manager;
 import com.gamesbykevin.jezzball.menu.CustomMenu;
-import com.gamesbykevin.jezzball.player.Player;
-import com.gamesbykevin.jezzball.player.Player.CaptureSpeed;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.player.Capture.CaptureSpeed;
 
 public class Options extends Layer implements LayerRules
 {
@@ -63,7 +63,7 @@ public class Options extends Layer implements LayerRules
         super.add(CustomMenu.OptionKey.CaptureSpeed, tmp);
         
         tmp = new Option("Lives Per Level: ");
-        for (Integer count : Player.START_LIVES)
+        for (Integer count : Capture.START_LIVES)
         {
             tmp.add(count.toString(), engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
         }
@@ -76,6 +76,22 @@ public class Options extends Layer implements LayerRules
         }
         super.add(CustomMenu.OptionKey.LevelStart, tmp);
 
+        tmp = new Option("Ball Collisions: ");
+        tmp.add("Off", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        tmp.add("On", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        super.add(CustomMenu.OptionKey.Collisions, tmp);
+        
+        tmp = new Option("Multi Wall: ");
+        tmp.add("Off", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        tmp.add("On", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        super.add(CustomMenu.OptionKey.MultiWall, tmp);
+        
+        //an option can only pick from its list, an exact seed is set with -Djezzball.seed (see Shared.SEED)
+        tmp = new Option("Seed: ");
+        tmp.add("Random", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        tmp.add("Repeat Last", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
+        super.add(CustomMenu.OptionKey.Seed, tmp);
+        
         tmp = new Option("Cheat: ");
         tmp.add("Off", engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
         tmp.add("On",engine.getResources().getMenuAudio(Resources.MenuAudio.MenuChange));
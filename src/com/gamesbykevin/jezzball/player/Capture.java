@@ -0,0 +1,345 @@
+package com.gamesbykevin.jezzball.player;
+
+import com.gamesbykevin.jezzball.balls.BallOwnership;
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+import com.gamesbykevin.jezzball.board.Split;
+import com.gamesbykevin.jezzball.shared.Shared;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lives of the player and the progress when splitting the boundaries.
+ * This is only the game rules, the Player draws it and turns the mouse into commands.
+ * @author GOD
+ */
+public final class Capture
+{
+    //the number of lives per level
+    public static final int[] START_LIVES = {5, 10, 15, 20, 1, 3};
+    
+    //the speed at which we will capture
+    public enum CaptureSpeed
+    {
+        Medium(2.5),
+        Fast(5),
+        Slow(1);
+        
+        private final double speed;
+        
+        private CaptureSpeed(final double speed)
+        {
+            this.speed = speed;
+        }
+        
+        public double getValue()
+        {
+            return this.speed;
+        }
+    }
+    
+    //number of lives the player has left
+    private int lives;
+    
+    //the capture speed
+    private double speed;
+    
+    //the direction of the next capture, the player starts facing vertically
+    private boolean horizontal = false;
+    
+    //can a capture be started while another is in progress, each boundary still only has 1 capture at a time
+    private boolean multiWall = Shared.MULTI_WALL;
+    
+    //the captures in progress are the first count lines, the rest are kept to be used again
+    private CaptureLine[] lines = new CaptureLine[0];
+    
+    //the number of captures in progress
+    private int count = 0;
+    
+    //the capture boundary in each boundary, indexed by the slot of the boundary and null if the boundary isn't being captured
+    private Rectangle[] boundaries = new Rectangle[0];
+    
+    //has a ball touched the capture boundary, indexed by the slot of the boundary
+    private boolean[] hits = new boolean[0];
+    
+    //the splits for the captures that finished on the same update
+    private final List<Split> splits = new ArrayList<>();
+    
+    /**
+     * Set the capture speed
+     * @param speed The distance each side moves in 1 update at Shared.DEFAULT_UPS
+     */
+    public void setSpeed(final double speed)
+    {
+        this.speed = speed;
+    }
+    
+    /**
+     * Take 1 life away
+     */
+    public void loseLife()
+    {
+        this.lives--;
+    }
+    
+    /**
+     * Do we have at least 1 life
+     * @return boolean
+     */
+    public boolean hasLives()
+    {
+        return (getLives() > 0);
+    }
+    
+    /**
+     * Get the number of lives
+     * @return int
+     */
+    public int getLives()
+    {
+        return this.lives;
+    }
+    
+    /**
+     * The index of the lives list we want to set
+     * @param index
+     */
+    public void setLives(final int index)
+    {
+        this.lives = START_LIVES[index];
+    }
+    
+    /**
+     * Are we capturing a boundary
+     * @return true if at least 1 capture is in progress
+     */
+    public boolean hasCapture()
+    {
+        return (this.count > 0);
+    }
+    
+    /**
+     * Is the boundary being captured
+     * @param slot The slot of the boundary
+     * @return boolean
+     */
+    public boolean hasCapture(final int slot)
+    {
+        return (slot >= 0 && slot < boundaries.length && boundaries[slot] != null);
+    }
+    
+    /**
+     * Stop every capture in progress
+     */
+    public void stop()
+    {
+        while (count > 0)
+        {
+            remove(count - 1);
+        }
+    }
+    
+    /**
+     * Can a capture be started while another is in progress
+     * @return boolean
+     */
+    public boolean hasMultiWall()
+    {
+        return this.multiWall;
+    }
+    
+    public void setMultiWall(final boolean multiWall)
+    {
+        this.multiWall = multiWall;
+    }
+    
+    /**
+     * Get the number of captures in progress
+     * @return int
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get a capture in progress
+     * @param index The index from 0 to getCount() - 1
+     * @return CaptureLine
+     */
+    public CaptureLine getLine(final int index)
+    {
+        return this.lines[index];
+    }
+    
+    /**
+     * Which way will the next capture go
+     * @return true if horizontal, false if vertical
+     */
+    public boolean hasHorizontal()
+    {
+        return this.horizontal;
+    }
+    
+    /**
+     * Switch the direction of the next capture
+     */
+    public void switchDirection()
+    {
+        this.horizontal = !this.horizontal;
+    }
+    
+    /**
+     * Move the sides of every capture and split the boundaries once both sides of a capture reach the end
+     * @param board The board containing the boundaries
+     * @param ownership The boundary each ball is inside
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @return true if a capture finished and a boundary was split
+     */
+    public boolean update(final Board board, final BallOwnership ownership, final double delta)
+    {
+        //if we aren't capturing there is nothing to move
+        if (!hasCapture())
+            return false;
+        
+        final BoundaryStore store = board.getStore();
+        
+        splits.clear();
+        
+        for (int index = count - 1; index >= 0; index--)
+        {
+            if (lines[index].update(store, speed, delta))
+            {
+                //the line is used for the next capture, the split is applied before it is started again
+                splits.add(lines[index].getSplit());
+                
+                //we are no longer capturing this boundary
+                remove(index);
+            }
+        }
+        
+        if (splits.isEmpty())
+            return false;
+        
+        //we need to separate the boundaries, each capture is inside its own boundary so the order doesn't matter
+        board.setBoundaries(splits, ownership);
+        
+        return true;
+    }
+    
+    /**
+     * Start capturing from the location in the direction the player is facing
+     * @param board The board containing the boundaries
+     * @param x x-coordinate in the arena
+     * @param y y-coordinate in the arena
+     * @return true if the capture started, false if the location isn't inside a boundary or a capture can't be started there yet
+     */
+    public boolean start(final Board board, final int x, final int y)
+    {
+        //only 1 capture at a time unless multi wall is on
+        if (hasCapture() && !hasMultiWall())
+            return false;
+        
+        final int slot = board.getBoundary(x, y);
+        
+        //the location was not found inside a boundary
+        if (slot == BoundaryStore.NONE)
+            return false;
+        
+        //make sure we aren't capturing this boundary already
+        if (hasCapture(slot))
+            return false;
+        
+        if (count == lines.length)
+        {
+            final CaptureLine[] tmp = new CaptureLine[Math.max(4, count * 2)];
+            System.arraycopy(lines, 0, tmp, 0, count);
+            lines = tmp;
+        }
+        
+        if (lines[count] == null)
+            lines[count] = new CaptureLine();
+        
+        if (slot >= boundaries.length)
+        {
+            final int capacity = Math.max(slot + 1, boundaries.length * 2);
+            
+            final Rectangle[] tmp = new Rectangle[capacity];
+            System.arraycopy(boundaries, 0, tmp, 0, boundaries.length);
+            boundaries = tmp;
+            
+            final boolean[] tmpHits = new boolean[capacity];
+            System.arraycopy(hits, 0, tmpHits, 0, hits.length);
+            hits = tmpHits;
+        }
+        
+        final CaptureLine line = lines[count++];
+        
+        line.start(board.getStore(), slot, x, y, hasHorizontal());
+        
+        boundaries[slot] = line.getCaptureBoundary();
+        hits[slot] = false;
+        
+        return true;
+    }
+    
+    /**
+     * Stop the capture, the line is kept to be used again
+     * @param index The index of the capture
+     */
+    private void remove(final int index)
+    {
+        final CaptureLine line = lines[index];
+        
+        boundaries[line.getSlot()] = null;
+        hits[line.getSlot()] = false;
+        
+        //the last capture takes its place
+        lines[index] = lines[--count];
+        lines[count] = line;
+    }
+    
+    /**
+     * Stop every capture a ball touched, 1 life is lost for each
+     * @return The number of captures stopped
+     */
+    public int removeHits()
+    {
+        int total = 0;
+        
+        for (int index = count - 1; index >= 0; index--)
+        {
+            if (hits[lines[index].getSlot()])
+            {
+                loseLife();
+                remove(index);
+                total++;
+            }
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Get the capture boundary in each boundary for the balls to check while they move.
+     * A ball only has to check the capture boundary of the boundary it is inside,
+     * so the check is 1 lookup for each ball no matter how many captures are in progress.
+     * @return The capture boundaries indexed by the slot of the boundary, null if the boundary isn't being captured, slots past the end aren't being captured
+     */
+    public Rectangle[] getCaptureBoundaries()
+    {
+        return this.boundaries;
+    }
+    
+    /**
+     * Get the table that records which captures a ball touched, the balls set the slot of their boundary.
+     * Balls in different boundaries can set it at the same time, a slot only ever changes from false to true until removeHits()
+     * @return The hits indexed by the slot of the boundary, the same length as getCaptureBoundaries()
+     */
+    public boolean[] getHits()
+    {
+        return this.hits;
+    }
+}
\ No newline at end of file
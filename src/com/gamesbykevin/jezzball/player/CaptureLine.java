@@ -0,0 +1,196 @@
+package com.gamesbykevin.jezzball.player;
+
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+import com.gamesbykevin.jezzball.board.Split;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * 1 capture in progress, the line grows from where it started until it reaches both sides of its boundary.
+ * The line is kept inside its boundary so only the balls in that boundary can touch it.
+ * The objects are kept by the Capture and used again for the next line so nothing is created while playing.
+ * @author GOD
+ */
+public final class CaptureLine
+{
+    //when capturing what is the dimension
+    private static final int CAPTURE_DIMENSION = 8;
+    
+    //the slot of the boundary being captured, the slot stays the same until the boundary is split
+    private int slot = BoundaryStore.NONE;
+    
+    //the direction of the capture
+    private boolean horizontal;
+    
+    //the location where we started capturing
+    private final Point start = new Point();
+    
+    //the 2 ends of the capture along the line, kept as fractions so each side moves the same at any ups
+    private double side1, side2;
+    
+    //the boundary that is the border we are capturing
+    private final Rectangle captureBoundary = new Rectangle();
+    
+    //the area the capture boundary will cover once complete
+    private final Rectangle captureArea = new Rectangle();
+    
+    //the split applied to the board once the capture is complete
+    private final Split split = new Split();
+    
+    /**
+     * Start capturing from the location
+     * @param store The boundaries
+     * @param slot The slot of the boundary containing the location
+     * @param x x-coordinate in the arena
+     * @param y y-coordinate in the arena
+     * @param horizontal The direction of the capture
+     */
+    void start(final BoundaryStore store, final int slot, final int x, final int y, final boolean horizontal)
+    {
+        this.slot = slot;
+        this.horizontal = horizontal;
+        
+        //set the start location of the capture and the locations of the sides
+        this.start.setLocation(x, y);
+        this.side1 = horizontal ? x : y;
+        this.side2 = this.side1;
+        
+        //the whole line across the boundary
+        if (horizontal)
+        {
+            captureArea.setBounds(store.getX(slot), start.y - (CAPTURE_DIMENSION / 2), store.getWidth(slot), CAPTURE_DIMENSION);
+        }
+        else
+        {
+            captureArea.setBounds(start.x - (CAPTURE_DIMENSION / 2), store.getY(slot), CAPTURE_DIMENSION, store.getHeight(slot));
+        }
+        
+        clip(store, captureArea);
+        
+        setCaptureBoundary(store);
+    }
+    
+    /**
+     * Move the sides of the capture
+     * @param store The boundaries
+     * @param speed The distance each side moves in 1 update at Shared.DEFAULT_UPS
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @return true if both sides have reached the end and the boundary can be split
+     */
+    boolean update(final BoundaryStore store, final double speed, final double delta)
+    {
+        if (horizontal)
+        {
+            //left side, stop the side from moving if it is out of bounds
+            this.side1 = Math.max(this.side1 - (speed * delta), store.getX(slot));
+            
+            //right side
+            this.side2 = Math.min(this.side2 + (speed * delta), store.getX(slot) + store.getWidth(slot));
+        }
+        else
+        {
+            //north side, stop the side from moving if it is out of bounds
+            this.side1 = Math.max(this.side1 - (speed * delta), store.getY(slot));
+            
+            //south side
+            this.side2 = Math.min(this.side2 + (speed * delta), store.getY(slot) + store.getHeight(slot));
+        }
+        
+        setCaptureBoundary(store);
+        
+        //both sides have reached the end
+        if (horizontal && side1 == store.getX(slot) && side2 == store.getX(slot) + store.getWidth(slot))
+        {
+            split.set(start.x, start.y, false);
+            return true;
+        }
+        
+        if (!horizontal && side1 == store.getY(slot) && side2 == store.getY(slot) + store.getHeight(slot))
+        {
+            split.set(start.x, start.y, true);
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Set the capture boundary from the sides, the sides are only rounded to pixels here
+     */
+    private void setCaptureBoundary(final BoundaryStore store)
+    {
+        final int min = (int)Math.round(side1);
+        final int max = (int)Math.round(side2);
+        
+        if (horizontal)
+        {
+            captureBoundary.setBounds(min, start.y - (CAPTURE_DIMENSION / 2), max - min, CAPTURE_DIMENSION);
+        }
+        else
+        {
+            captureBoundary.setBounds(start.x - (CAPTURE_DIMENSION / 2), min, CAPTURE_DIMENSION, max - min);
+        }
+        
+        clip(store, captureBoundary);
+    }
+    
+    /**
+     * Keep the rectangle inside the boundary being captured, a line started near a wall would reach past it
+     */
+    private void clip(final BoundaryStore store, final Rectangle rectangle)
+    {
+        final int x = Math.max(rectangle.x, store.getX(slot));
+        final int y = Math.max(rectangle.y, store.getY(slot));
+        final int width  = Math.min(rectangle.x + rectangle.width,  store.getX(slot) + store.getWidth(slot))  - x;
+        final int height = Math.min(rectangle.y + rectangle.height, store.getY(slot) + store.getHeight(slot)) - y;
+        
+        rectangle.setBounds(x, y, Math.max(0, width), Math.max(0, height));
+    }
+    
+    /**
+     * Get the slot of the boundary being captured
+     * @return int
+     */
+    public int getSlot()
+    {
+        return this.slot;
+    }
+    
+    /**
+     * Is the capture going left and right
+     * @return boolean
+     */
+    public boolean hasHorizontal()
+    {
+        return this.horizontal;
+    }
+    
+    /**
+     * Get the part of the line captured so far, balls touching it cost a life
+     * @return The boundary, the same object is returned every time
+     */
+    public Rectangle getCaptureBoundary()
+    {
+        return this.captureBoundary;
+    }
+    
+    /**
+     * Get the area the capture boundary will cover once complete, the whole line across the boundary being captured.
+     * The capture boundary is always inside this area.
+     * @return The area, the same object is returned every time
+     */
+    public Rectangle getCaptureArea()
+    {
+        return this.captureArea;
+    }
+    
+    /**
+     * Get the split to apply once the capture is complete
+     * @return Split
+     */
+    Split getSplit()
+    {
+        return this.split;
+    }
+}
\ No newline at end of file
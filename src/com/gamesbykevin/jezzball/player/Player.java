@@ -3,362 +3,65 @@ package com.gamesbykevin.jezzball.player;
 import com.gamesbykevin.framework.base.Sprite;
 import com.gamesbykevin.framework.input.Mouse;
 
-import com.gamesbykevin.jezzball.balls.Ball;
-import com.gamesbykevin.jezzball.board.Board;
-import com.gamesbykevin.jezzball.main.Resources;
-
-import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Image;
-import java.awt.Point;
-import java.awt.Rectangle;
-import java.util.List;
+import com.gamesbykevin.jezzball.manager.Viewport;
+import com.gamesbykevin.jezzball.simulation.Input;
 
 /**
- * This class manages the progress when splitting containers as well as the mouse position/display
+ * This class turns the mouse into commands and keeps the location of the player, the Capture has the game rules.
+ * The PlayerRenderer draws the player from a snapshot.
  * @author GOD
  */
 public class Player extends Sprite
 {
-    //number of lives the player has left
-    private int lives;
-    
-    //horizontal and vertical images
-    private final Image horizontal, vertical;
-    
-    //dimension of capture image
-    private static final int DIMENSION = 64;
-    
-    //are we currently capturing
-    private boolean capture = false;
-    
-    //the number of lives per level
-    public static final int[] START_LIVES = {5, 10, 15, 20, 1, 3};
-    
-    //the speed at which we will capture
-    public enum CaptureSpeed
-    {
-        Medium(2.5),
-        Fast(5),
-        Slow(1);
-        
-        private final double speed;
-        
-        private CaptureSpeed(final double speed)
-        {
-            this.speed = speed;
-        }
-        
-        public double getValue()
-        {
-            return this.speed;
-        }
-    }
-    
-    //the capture speed
-    private double speed;
-    
-    //the location where we started capturing
-    private Point start;
-    
-    //when capturing what is the dimension
-    private static final int CAPTURE_DIMENSION = 8;
-    
-    //the 2 ends of the capture
-    private Point side1, side2;
-    
-    //the boundary that is the border we are capturing
-    private Rectangle captureBoundary;
+    //maps the mouse on the screen to the arena
+    private final Viewport viewport;
     
-    public Player(final Image horizontal, final Image vertical)
-    {
-        //set the appropriate images
-        this.horizontal = horizontal;
-        this.vertical = vertical;
-        
-        //set the appropriate dimensions
-        setDimensions(DIMENSION, DIMENSION);
-        
-        //set the appropriate image
-        switchImage();
-    }
+    //the commands for the next update
+    private final Input input = new Input();
     
-    public void setSpeed(final int index)
-    {
-        this.speed = CaptureSpeed.values()[index].getValue();
-    }
-    
-    /**
-     * Take 1 life away
-     */
-    public void loseLife()
-    {
-        this.lives--;
-    }
+    //the location before the last update, the player is drawn between here and the location
+    private double previousX, previousY;
     
-    /**
-     * Do we have at least 1 life
-     * @return boolean
-     */
-    public boolean hasLives()
+    public Player(final Viewport viewport)
     {
-        return (getLives() > 0);
+        //the player is located in arena coordinates
+        this.viewport = viewport;
     }
     
     /**
-     * Get the number of lives
-     * @return int
+     * Turn the mouse into the commands for the next update and update the mouse location
+     * @param mouse The mouse input
+     * @return The commands, the same object is returned every time
      */
-    public int getLives()
+    public Input update(final Mouse mouse)
     {
-        return this.lives;
-    }
-    
-    /**
-     * The index of the lives list we want to set
-     * @param index 
-     */
-    public void setLives(final int index)
-    {
-        this.lives = START_LIVES[index];
-    }
-    
-    /**
-     * Are we capturing a boundary
-     * @return 
-     */
-    public boolean hasCapture()
-    {
-        return this.capture;
-    }
-    
-    /**
-     * If capture is enabled then turn off and vice versa
-     */
-    public void switchCapture()
-    {
-        this.capture = !this.capture;
-    }
-    
-    /**
-     * Which way are we facing
-     * @return boolean
-     */
-    private boolean hasHorizontal()
-    {
-        if (getImage() == null || getImage() == horizontal)
-            return true;
-        
-        return false;
-    }
-    
-    private void switchImage()
-    {
-        if (hasHorizontal())
-        {
-            super.setImage(vertical);
-        }
-        else
-        {
-            super.setImage(horizontal);
-        }
-    }
-    
-    public void update(final Mouse mouse, final Board board, final List<Ball> balls, final Resources resources)
-    {
-        //if we are capturing
-        if (hasCapture())
-        {
-            //get the boundary so we know when we have reached the end
-            Rectangle tmp = null;
-            
-            //there will always be a boundary returned
-            for (Rectangle boundary : board.getBoundaries())
-            {
-                if (boundary.contains(start))
-                {
-                    tmp = boundary;
-                    break;
-                }
-            }
-            
-            if (super.hasVelocityX())
-            {
-                //left side
-                this.side1.x += -super.getVelocityX();
-                
-                //right side
-                this.side2.x += super.getVelocityX();
-                
-                //stop sides from moving if they are out of bounds
-                if (!tmp.contains(this.side1))
-                    this.side1.x = tmp.x;
-                if (!tmp.contains(this.side2))
-                    this.side2.x = tmp.x + tmp.width;
-                
-                //both sides have reached the end
-                if (side1.x == tmp.x && side2.x == tmp.x + tmp.width)
-                {
-                    //we are no longer capturing
-                    switchCapture();
-                    
-                    //we need to separate the boundaries
-                    board.setBoundaries(start, false, balls);
-                    
-                    //play fix sound effect
-                    resources.getGameAudio(Resources.GameAudio.Fix).play();
-                }
-            }
-            
-            if (super.hasVelocityY())
-            {
-                //north side
-                this.side1.y += -super.getVelocityY();
-                
-                //south side
-                this.side2.y += super.getVelocityY();
-                
-                //stop sides from moving if they are out of bounds
-                if (!tmp.contains(this.side1))
-                    this.side1.y = tmp.y;
-                if (!tmp.contains(this.side2))
-                    this.side2.y = tmp.y + tmp.height;
-                
-                //both sides have reached the end
-                if (side1.y == tmp.y && side2.y == tmp.y + tmp.height)
-                {
-                    //we are no longer capturing
-                    switchCapture();
-                    
-                    //we need to separate the boundaries
-                    board.setBoundaries(start, true, balls);
-                    
-                    //play fix sound effect
-                    resources.getGameAudio(Resources.GameAudio.Fix).play();
-                }
-            }
-        }
+        //left button starts a capture, right button switches direction
+        final boolean start = mouse.isMousePressed() && mouse.hitLeftButton();
+        final boolean turn = mouse.isMousePressed() && mouse.hitRightButton();
         
-        if (mouse.isMousePressed() && mouse.hitLeftButton())
-        {
-            //make sure we aren't capturing already
-            if (!hasCapture())
-            {
-                //turn capture on
-                switchCapture();
-                
-                //offset coordinates
-                super.setX(super.getX() - (super.getWidth()  / 2));
-                super.setY(super.getY() - (super.getHeight() / 2));
+        //the capture starts where the player was before the mouse moved
+        input.set((int)super.getX(), (int)super.getY(), start, turn);
         
-                //set the start location of the capture
-                this.start = super.getCenter();
-                
-                //set coordinates back
-                super.setX(super.getX() + (super.getWidth()  / 2));
-                super.setY(super.getY() + (super.getHeight() / 2));
-                
-                //the boundary that contains the start position
-                Rectangle tmp = null;
-                
-                //if the start position is not found in a boundary do not continue
-                for (Rectangle boundary : board.getBoundaries())
-                {
-                    //have we found a boundary that contains the start position
-                    if (boundary.contains(start))
-                    {
-                        tmp = boundary;
-                        break;
-                    }
-                }
-                
-                //the location was not found inside a boundary
-                if (tmp == null)
-                {
-                    //turn capture off
-                    switchCapture();
-                    
-                    //do not continue since we didn't find a boundary
-                    return;
-                }
-                
-                
-                //set the locations of the side
-                this.side1 = new Point(start);
-                this.side2 = new Point(start);
-                
-                //reset velocity
-                resetVelocity();
-                
-                if (hasHorizontal())
-                {
-                    setVelocityX(speed);
-                }
-                else
-                {
-                    setVelocityY(speed);
-                }
-            }
-        }
+        previousX = super.getX();
+        previousY = super.getY();
         
-        //switch player image
-        if (mouse.isMousePressed() && mouse.hitRightButton())
-            switchImage();
-        
-        //update location
+        //update location, the mouse is on the screen and the player is in the arena
         if (mouse.hasMouseMoved() || mouse.isMouseDragged())
-            super.setLocation(mouse.getLocation());
+            super.setLocation(viewport.toArenaX(mouse.getLocation().x), viewport.toArenaY(mouse.getLocation().y));
         
         //reset mouse events and mouse buttons hit
         mouse.reset();
+        
+        return input;
     }
     
-    public Rectangle getCaptureBoundary()
+    public double getPreviousX()
     {
-        //create new instance if not instantiated yet
-        if (captureBoundary == null)
-            captureBoundary = new Rectangle();
-        
-        //capturing horizontally
-        if (this.side1.x != start.x)
-        {
-            captureBoundary.x      = side1.x;
-            captureBoundary.y      = start.y - (CAPTURE_DIMENSION / 2);
-            captureBoundary.width  = side2.x - side1.x;
-            captureBoundary.height = CAPTURE_DIMENSION;
-        }
-        else
-        {
-            //capturing vertically
-            captureBoundary.x      = start.x - (CAPTURE_DIMENSION / 2);
-            captureBoundary.y      = side1.y;
-            captureBoundary.width  = CAPTURE_DIMENSION;
-            captureBoundary.height = side2.y - side1.y;
-        }
-        
-        return captureBoundary;
+        return this.previousX;
     }
     
-    public void render(Graphics graphics)
+    public double getPreviousY()
     {
-        //offset coordinates
-        super.setX(super.getX() - (super.getWidth()  / 2));
-        super.setY(super.getY() - (super.getHeight() / 2));
-        
-        //draw image
-        super.draw(graphics);
-        
-        //set coordinates back
-        super.setX(super.getX() + (super.getWidth()  / 2));
-        super.setY(super.getY() + (super.getHeight() / 2));
-        
-        //if capturing draw progress
-        if (hasCapture())
-        {
-            graphics.setColor(Color.WHITE);
-            graphics.fillRect(getCaptureBoundary().x, getCaptureBoundary().y, getCaptureBoundary().width, getCaptureBoundary().height);
-            graphics.setColor(Color.BLACK);
-            graphics.drawRect(getCaptureBoundary().x, getCaptureBoundary().y, getCaptureBoundary().width, getCaptureBoundary().height);
-        }
+        return this.previousY;
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.gamesbykevin.jezzball.player;
+
+import com.gamesbykevin.jezzball.manager.Snapshot;
+import com.gamesbykevin.jezzball.manager.Viewport;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+
+/**
+ * Draws the player and the progress of each capture from a snapshot
+ * @author GOD
+ */
+public final class PlayerRenderer
+{
+    //horizontal and vertical images
+    private final Image horizontal, vertical;
+    
+    //dimension of capture image
+    private static final int DIMENSION = 64;
+    
+    public PlayerRenderer(final Image horizontal, final Image vertical)
+    {
+        //set the appropriate images
+        this.horizontal = horizontal;
+        this.vertical = vertical;
+    }
+    
+    /**
+     * Draw the player
+     * @param graphics Graphics object for the screen, the capture is drawn in arena coordinates
+     * @param viewport Maps the arena onto the screen
+     * @param snapshot The location of the player, the direction of the next capture and the progress of each capture
+     * @param alpha How far from the update before to the last update the player is drawn, 1 is where the last update left it
+     */
+    public void render(final Graphics graphics, final Viewport viewport, final Snapshot snapshot, final double alpha)
+    {
+        //show which way the next capture will go, the image is drawn on the screen at its own size even if the arena is scaled
+        final int x = viewport.toScreenX(snapshot.getPlayerX(alpha)) - (DIMENSION / 2);
+        final int y = viewport.toScreenY(snapshot.getPlayerY(alpha)) - (DIMENSION / 2);
+        
+        graphics.drawImage(snapshot.hasHorizontal() ? horizontal : vertical, x, y, DIMENSION, DIMENSION, null);
+        
+        //if capturing draw progress
+        if (snapshot.getCaptureCount() > 0)
+        {
+            final Graphics2D g = viewport.getGraphics(graphics);
+            
+            for (int index = 0; index < snapshot.getCaptureCount(); index++)
+            {
+                final Rectangle boundary = snapshot.getCapture(index);
+                
+                g.setColor(Color.WHITE);
+                g.fillRect(boundary.x, boundary.y, boundary.width, boundary.height);
+                g.setColor(Color.BLACK);
+                g.drawRect(boundary.x, boundary.y, boundary.width, boundary.height);
+            }
+        }
+    }
+}
\ No newline at end of file
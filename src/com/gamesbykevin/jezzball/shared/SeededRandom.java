@@ -0,0 +1,109 @@
+package com.gamesbykevin.jezzball.shared;
+
+/**
+ * Random numbers that are the same every time for the same seed (SplitMix64).
+ * Each game has its own so nothing is shared between threads or games,
+ * and each level starts its own numbers so a level can be played again from the seed and level number.
+ *
+ * Not thread safe, each thread needs its own.
+ *
+ * @author GOD
+ */
+public final class SeededRandom
+{
+    //added to the state for each number, the odd number closest to 2^64 divided by the golden ratio
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+    
+    //the seed the numbers come from
+    private final long seed;
+    
+    //the current state, changes with every number
+    private long state;
+    
+    /**
+     * Create a new random source
+     * @param seed The seed, the same seed always gives the same numbers
+     */
+    public SeededRandom(final long seed)
+    {
+        this.seed = seed;
+        this.state = seed;
+    }
+    
+    /**
+     * Create a new seed that is different every time
+     * @return long
+     */
+    public static long createSeed()
+    {
+        return mix(System.nanoTime()) ^ mix(System.currentTimeMillis() + GAMMA);
+    }
+    
+    public long getSeed()
+    {
+        return this.seed;
+    }
+    
+    /**
+     * Start the numbers for the level, each level gets the same numbers every time for the same seed
+     * @param level The level number
+     */
+    public void reset(final int level)
+    {
+        this.state = mix(seed + (GAMMA * level));
+    }
+    
+    /**
+     * Get the next random number
+     * @return Any long value
+     */
+    public long nextLong()
+    {
+        state += GAMMA;
+        
+        return mix(state);
+    }
+    
+    /**
+     * Get the next random number
+     * @return A value from 0 (inclusive) to 1 (exclusive)
+     */
+    public double nextDouble()
+    {
+        //the top 53 bits fill the fraction of a double
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+    
+    /**
+     * Get the next random number
+     * @param bound The upper bound (exclusive), has to be positive
+     * @return A value from 0 (inclusive) to bound (exclusive)
+     */
+    public int nextInt(final int bound)
+    {
+        if (bound <= 0)
+            throw new IllegalArgumentException("The bound has to be positive, bound = " + bound);
+        
+        return (int)((nextLong() >>> 33) * bound >>> 31);
+    }
+    
+    /**
+     * Get the next random true or false
+     * @return boolean
+     */
+    public boolean nextBoolean()
+    {
+        return (nextLong() < 0);
+    }
+    
+    /**
+     * Mix the bits of the value so every bit of the result depends on every bit of the value
+     */
+    private static long mix(long value)
+    {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        
+        return value ^ (value >>> 31);
+    }
+}
\ No newline at end of file
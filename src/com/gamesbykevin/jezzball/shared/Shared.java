@@ -2,6 +2,7 @@ package com.gamesbykevin.jezzball.shared;
 
 import java.awt.Cursor;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 
@@ -20,18 +21,91 @@ public class Shared
     public static final int ORIGINAL_WIDTH  = 500;
     public static final int ORIGINAL_HEIGHT = 500;
     
+    //the area of the window the arena is drawn in
+    public static final Rectangle VIEW = new Rectangle(0, 100, 500, 400);
+    
+    //the largest arena supported on each side
+    public static final int MAX_ARENA_SIZE = 8192;
+    
+    //the size of the arena the game is played in, can be set at runtime with -Djezzball.arena.width and -Djezzball.arena.height
+    //arenas larger than the window are scaled down to fit
+    //throughput target: a full update has to fit in 1 tick at DEFAULT_UPS (11ms) on a MAX_ARENA_SIZE arena with 10,000 balls, checked with StartHeadless --bench=sweep
+    public static final int ARENA_WIDTH  = getSetting("jezzball.arena.width", 500, 1, MAX_ARENA_SIZE);
+    public static final int ARENA_HEIGHT = getSetting("jezzball.arena.height", 400, 1, MAX_ARENA_SIZE);
+    
+    //the number of balls in each level, set with -Djezzball.arena.balls, 0 will use the level number
+    public static final int ARENA_BALLS = getSetting("jezzball.arena.balls", 0, 0, Integer.MAX_VALUE);
+    
+    //the number of balls before they are moved on several threads, set with -Djezzball.parallel.threshold, 0 will always use 1 thread
+    public static final int PARALLEL_THRESHOLD = getSetting("jezzball.parallel.threshold", 20000, 0, Integer.MAX_VALUE);
+    
+    //draw the frames on their own thread from snapshots of the game, set with -Djezzball.renderthread=true
+    public static final boolean RENDER_THREAD = Boolean.getBoolean("jezzball.renderthread");
+    
+    //move the balls from wall to wall with a priority queue instead of moving every ball each update, set with -Djezzball.events=true
+    public static final boolean EVENTS = Boolean.getBoolean("jezzball.events");
+    
+    //start a capture while another is in progress, 1 in each boundary at most, set with -Djezzball.multiwall=true or from the options
+    public static final boolean MULTI_WALL = Boolean.getBoolean("jezzball.multiwall");
+    
+    //the seed for the level layouts, set with -Djezzball.seed, null will pick a new seed for each game
+    public static final Long SEED = Long.getLong("jezzball.seed");
+    
     //show UPS/FPS counters
     public static final boolean DEBUG = false;
     
+    //the file the click latencies are written to when the game exits, set with -Djezzball.latency.file, null will not write them
+    public static final String LATENCY_FILE = System.getProperty("jezzball.latency.file", DEBUG ? "latency.txt" : null);
+    
     //how many updates per second, controls speed of game
     public static final int DEFAULT_UPS = 90;
     
+    //how many updates per second to run, set with -Djezzball.ups, the game plays the same at a lower ups with less cpu
+    public static final int UPS = getSetting("jezzball.ups", DEFAULT_UPS, 1, 1000);
+    
     //how many frames per second, controls how many images are rendered
     public static final int DEFAULT_FPS = 60;
     
+    //show the frames by page flipping on a canvas, set with -Djezzball.bufferstrategy=false to draw an image onto the applet or panel instead
+    public static final boolean BUFFER_STRATEGY = !"false".equals(System.getProperty("jezzball.bufferstrategy"));
+    
+    //the number of buffers to flip between, set with -Djezzball.buffers to 2 or 3
+    public static final int BUFFERS = getSetting("jezzball.buffers", 2, 2, 3);
+    
+    //how the game loop waits for the next update or frame, set with -Djezzball.pacer to LowPower, Balanced or LowLatency
+    public static final String PACER = System.getProperty("jezzball.pacer", "Balanced");
+    
+    //size of the cells (pixels) used to track the captured area, set with -Djezzball.board.cellsize, 0 will track the area from the boundaries
+    public static final int BOARD_CELL_SIZE = getSetting("jezzball.board.cellsize", 0, 0, MAX_ARENA_SIZE);
+    
     //what is the name of our game
     public static final String GAME_NAME = "Jezzball";
     
-    //blank cursor created here to hide the mouse cursor
-    public static final Cursor CURSOR = Toolkit.getDefaultToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(0, 0), "blank cursor");
+    /**
+     * Create a blank cursor to hide the mouse cursor.
+     * This needs a display so it is only created when a window is shown, not when the class is loaded
+     * @return Cursor
+     */
+    public static Cursor createCursor()
+    {
+        return Toolkit.getDefaultToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(0, 0), "blank cursor");
+    }
+    
+    /**
+     * Get a setting from the system properties
+     * @param key The name of the system property
+     * @param defaultValue The value to use if the property is not set
+     * @param min The lowest value allowed
+     * @param max The highest value allowed
+     * @return The value of the setting
+     */
+    private static int getSetting(final String key, final int defaultValue, final int min, final int max)
+    {
+        final int value = Integer.getInteger(key, defaultValue);
+        
+        if (value < min || value > max)
+            throw new IllegalArgumentException(key + " has to be between " + min + " and " + max + ", value = " + value);
+        
+        return value;
+    }
 }
\ No newline at end of file
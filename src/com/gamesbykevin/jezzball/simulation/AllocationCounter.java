@@ -0,0 +1,75 @@
+package com.gamesbykevin.jezzball.simulation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counts the bytes allocated on the heap by the current thread.
+ * An update is supposed to allocate nothing once the level has started,
+ * anything allocated every update ends up as garbage collection pauses on long running games.
+ * @author GOD
+ */
+public final class AllocationCounter
+{
+    //the HotSpot version of the bean can count the bytes allocated by each thread
+    private final com.sun.management.ThreadMXBean bean;
+    
+    //the bytes allocated when the count was started
+    private long start;
+    
+    //the bytes counted so far
+    private long total;
+    
+    /**
+     * Create a new counter
+     * @throws IllegalStateException if the JVM can't count the bytes allocated by a thread
+     */
+    public AllocationCounter()
+    {
+        final ThreadMXBean tmp = ManagementFactory.getThreadMXBean();
+        
+        if (!(tmp instanceof com.sun.management.ThreadMXBean))
+            throw new IllegalStateException("This JVM can't count the bytes allocated by a thread");
+        
+        this.bean = (com.sun.management.ThreadMXBean)tmp;
+        
+        if (!bean.isThreadAllocatedMemorySupported())
+            throw new IllegalStateException("This JVM can't count the bytes allocated by a thread");
+        
+        bean.setThreadAllocatedMemoryEnabled(true);
+    }
+    
+    /**
+     * Get the total bytes allocated by the current thread
+     * @return long
+     */
+    private long getAllocatedBytes()
+    {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    
+    /**
+     * Start counting, only the current thread is counted
+     */
+    public void start()
+    {
+        start = getAllocatedBytes();
+    }
+    
+    /**
+     * Stop counting and add the bytes allocated since start() to the total
+     */
+    public void stop()
+    {
+        total += getAllocatedBytes() - start;
+    }
+    
+    /**
+     * Get the bytes counted between each start() and stop()
+     * @return long
+     */
+    public long getTotal()
+    {
+        return this.total;
+    }
+}
\ No newline at end of file
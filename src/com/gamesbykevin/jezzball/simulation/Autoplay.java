@@ -0,0 +1,103 @@
+package com.gamesbykevin.jezzball.simulation;
+
+import com.gamesbykevin.jezzball.board.BoundaryStore;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+
+/**
+ * Scripted input that plays the game without a mouse.
+ * Once the last capture is finished it waits a moment and then starts a capture
+ * at a random location in the largest boundary, facing a random direction.
+ * With multi wall on it doesn't wait for the captures to finish, the next capture is in the largest boundary not being captured.
+ * The choices come from the seed so every run with the same seed plays the same.
+ * @author GOD
+ */
+public final class Autoplay
+{
+    //the number of updates to wait between captures
+    private static final int WAIT = 10;
+    
+    //picks the location and direction of each capture
+    private final SeededRandom random;
+    
+    //the commands for the next update
+    private final Input input = new Input();
+    
+    //the number of updates left before the next capture
+    private int wait;
+    
+    /**
+     * Create new scripted input
+     * @param seed The seed for the choices
+     */
+    public Autoplay(final long seed)
+    {
+        this.random = new SeededRandom(seed);
+    }
+    
+    /**
+     * Start the choices for the level
+     * @param level The level number
+     */
+    public void reset(final int level)
+    {
+        random.reset(level);
+        
+        input.set(0, 0, false, false);
+        
+        wait = WAIT;
+    }
+    
+    /**
+     * Get the commands for the next update
+     * @param simulation The game being played
+     * @return The commands, the same object is returned every time
+     */
+    public Input next(final Simulation simulation)
+    {
+        input.reset();
+        
+        final Capture capture = simulation.getCapture();
+        
+        //wait for the capture to finish
+        if (capture.hasCapture() && !capture.hasMultiWall())
+            return input;
+        
+        wait--;
+        
+        if (wait > 0)
+            return input;
+        
+        wait = WAIT;
+        
+        final BoundaryStore store = simulation.getBoard().getStore();
+        
+        //the largest boundary has the most area to capture
+        int largest = BoundaryStore.NONE;
+        
+        for (int i = 0; i < store.size(); i++)
+        {
+            final int slot = store.getSlot(i);
+            
+            //only 1 capture in each boundary
+            if (capture.hasCapture(slot))
+                continue;
+            
+            if (largest == BoundaryStore.NONE || store.getArea(slot) > store.getArea(largest))
+                largest = slot;
+        }
+        
+        //nothing left to capture
+        if (largest == BoundaryStore.NONE)
+            return input;
+        
+        //a location inside the boundary, away from the edges
+        final int x = store.getX(largest) + 1 + random.nextInt(Math.max(1, store.getWidth(largest) - 2));
+        final int y = store.getY(largest) + 1 + random.nextInt(Math.max(1, store.getHeight(largest) - 2));
+        
+        //the direction switches after the capture starts so it is used by the next capture
+        input.set(x, y, true, random.nextBoolean());
+        
+        return input;
+    }
+}
\ No newline at end of file
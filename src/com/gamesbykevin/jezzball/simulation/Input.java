@@ -0,0 +1,62 @@
+package com.gamesbykevin.jezzball.simulation;
+
+/**
+ * The commands from the player for 1 update.
+ * The same object is filled again each update so nothing is created while playing.
+ * @author GOD
+ */
+public final class Input
+{
+    //the location of the player in the arena
+    private int x, y;
+    
+    //start a capture at the location
+    private boolean start;
+    
+    //switch the direction of the next capture
+    private boolean turn;
+    
+    /**
+     * Set the commands for the next update
+     * @param x x-coordinate of the player in the arena
+     * @param y y-coordinate of the player in the arena
+     * @param start Start a capture at the location
+     * @param turn Switch the direction of the next capture
+     */
+    public void set(final int x, final int y, final boolean start, final boolean turn)
+    {
+        this.x = x;
+        this.y = y;
+        this.start = start;
+        this.turn = turn;
+    }
+    
+    /**
+     * Clear the commands, the location stays the same
+     */
+    public void reset()
+    {
+        this.start = false;
+        this.turn = false;
+    }
+    
+    public int getX()
+    {
+        return this.x;
+    }
+    
+    public int getY()
+    {
+        return this.y;
+    }
+    
+    public boolean hasStart()
+    {
+        return this.start;
+    }
+    
+    public boolean hasTurn()
+    {
+        return this.turn;
+    }
+}
\ No newline at end of file
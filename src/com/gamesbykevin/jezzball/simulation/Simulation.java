@@ -0,0 +1,212 @@
+package com.gamesbykevin.jezzball.simulation;
+
+import com.gamesbykevin.jezzball.balls.BallManager;
+import com.gamesbykevin.jezzball.board.Board;
+import com.gamesbykevin.jezzball.player.Capture;
+import com.gamesbykevin.jezzball.shared.SeededRandom;
+import com.gamesbykevin.jezzball.shared.Shared;
+
+import java.awt.Rectangle;
+
+/**
+ * The game rules without anything to draw or play sound, the state only changes in step().
+ * Nothing here needs a display so the game can be played in a headless JVM,
+ * the Manager draws the state and turns the events into sound.
+ * @author GOD
+ */
+public final class Simulation
+{
+    //a ball hit a capture boundary and a life was lost
+    public static final int EVENT_HIT = 1;
+    
+    //a capture finished and its boundary was split
+    public static final int EVENT_CAPTURE = 2;
+    
+    //the goal for the level was reached
+    public static final int EVENT_GOAL = 4;
+    
+    //a capture was started
+    public static final int EVENT_START = 8;
+    
+    //the area the game is played in
+    private final Rectangle arena;
+    
+    //all of the random numbers in the game come from here so a game can be played again from the seed
+    private final SeededRandom random;
+    
+    //object that manages all of the balls
+    private final BallManager balls;
+    
+    //game board that has all of the boundaries
+    private final Board board;
+    
+    //the lives and the progress of the capture
+    private final Capture capture;
+    
+    //the current level
+    private int level = 0;
+    
+    //the number of updates in the current level
+    private long ticks = 0;
+    
+    //the number of balls in each level, 0 will use the level number
+    private int ballCount = Shared.ARENA_BALLS;
+    
+    /**
+     * Create a new simulation
+     * @param arena The area the game is played in
+     * @param seed The seed for the level layouts
+     * @param cellSize The size of the cells used to track the captured area, 0 will track the area from the boundaries
+     */
+    public Simulation(final Rectangle arena, final long seed, final int cellSize)
+    {
+        this.arena = new Rectangle(arena);
+        this.random = new SeededRandom(seed);
+        this.balls = new BallManager(random);
+        this.board = new Board(cellSize);
+        this.capture = new Capture();
+    }
+    
+    /**
+     * Set the number of balls in each level, starts as Shared.ARENA_BALLS
+     * @param ballCount The number of balls, 0 will use the level number
+     */
+    public void setBallCount(final int ballCount)
+    {
+        if (ballCount < 0)
+            throw new IllegalArgumentException("The number of balls can't be negative, ballCount = " + ballCount);
+        
+        this.ballCount = ballCount;
+    }
+    
+    /**
+     * Get the number of balls for the level
+     * @param level The level number
+     * @return The number of balls set, otherwise the level number
+     */
+    public int getBallCount(final int level)
+    {
+        return (ballCount > 0) ? ballCount : level;
+    }
+    
+    /**
+     * Start a level
+     * @param level The level number
+     * @param sizeIndex The index of the ball size
+     * @param speedIndex The index of the ball speed
+     * @param livesIndex The index of the number of lives
+     * @param captureSpeed The distance each side of the capture moves in 1 update at Shared.DEFAULT_UPS
+     * @throws Exception
+     */
+    public void reset(final int level, final int sizeIndex, final int speedIndex, final int livesIndex, final double captureSpeed) throws Exception
+    {
+        this.level = level;
+        this.ticks = 0;
+        
+        //each level has its own random numbers so the layout only depends on the seed and level
+        random.reset(level);
+        
+        //reset the number of lives
+        capture.setLives(livesIndex);
+        
+        //set the capture speed
+        capture.setSpeed(captureSpeed);
+        
+        //make sure player isn't still capturing
+        capture.stop();
+        
+        //reset the list of balls to include the correct total inside the given container
+        balls.reset(arena, getBallCount(level), sizeIndex, speedIndex);
+        
+        //reset board, must reset the balls first
+        board.reset(arena, balls.getEngine());
+        
+        //find the boundary each ball starts in, must reset board first
+        balls.getOwnership().reset(board);
+    }
+    
+    /**
+     * Play 1 update.
+     * Once the goal is reached nothing changes until the next level is started.
+     * @param input The commands from the player
+     * @param delta The amount of time, 1 is 1 update at Shared.DEFAULT_UPS
+     * @return The events that happened, a combination of the EVENT_ values
+     */
+    public int step(final Input input, final double delta)
+    {
+        if (board.hasGoal())
+            return 0;
+        
+        int events = 0;
+        
+        ticks++;
+        
+        //update the locations of all the balls and keep the boundaries in mind
+        if (balls.update(board, capture, delta))
+            events |= EVENT_HIT;
+        
+        //move the captures
+        if (capture.update(board, balls.getOwnership(), delta))
+            events |= EVENT_CAPTURE;
+        
+        //start a new capture
+        if (input.hasStart() && capture.start(board, input.getX(), input.getY()))
+            events |= EVENT_START;
+        
+        //switch direction
+        if (input.hasTurn())
+            capture.switchDirection();
+        
+        if (board.hasGoal())
+            events |= EVENT_GOAL;
+        
+        return events;
+    }
+    
+    /**
+     * Stop the threads used to move the balls
+     */
+    public void dispose()
+    {
+        balls.dispose();
+    }
+    
+    public Rectangle getArena()
+    {
+        return this.arena;
+    }
+    
+    public SeededRandom getRandom()
+    {
+        return this.random;
+    }
+    
+    public BallManager getBalls()
+    {
+        return this.balls;
+    }
+    
+    public Board getBoard()
+    {
+        return this.board;
+    }
+    
+    public Capture getCapture()
+    {
+        return this.capture;
+    }
+    
+    public int getLevel()
+    {
+        return this.level;
+    }
+    
+    /**
+     * Get the number of updates played in the current level
+     * @return long
+     */
+    public long getTicks()
+    {
+        return this.ticks;
+    }
+}
\ No newline at end of file
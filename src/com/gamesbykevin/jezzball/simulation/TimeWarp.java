@@ -0,0 +1,70 @@
+package com.gamesbykevin.jezzball.simulation;
+
+/**
+ * How many times faster than real time the game is played.
+ * Every update still covers the same amount of game time,
+ * a warp only runs more updates each second so the timers stay with the game and not the clock.
+ * @author GOD
+ */
+public enum TimeWarp
+{
+    Normal(1),
+    Fast(10),
+    Faster(100),
+    
+    //as many updates as possible
+    Maximum(0);
+    
+    private final int factor;
+    
+    private TimeWarp(final int factor)
+    {
+        this.factor = factor;
+    }
+    
+    /**
+     * Get how many times faster than real time
+     * @return The factor, 0 if there is no limit
+     */
+    public int getFactor()
+    {
+        return this.factor;
+    }
+    
+    /**
+     * Is there no limit to the number of updates
+     * @return boolean
+     */
+    public boolean isUnlimited()
+    {
+        return (getFactor() == 0);
+    }
+    
+    /**
+     * Get the real time between each update
+     * @param ups The updates per second in real time
+     * @return The time in nanoseconds, 0 if there is no limit
+     */
+    public long getNanoSecondsPerUpdate(final int ups)
+    {
+        return isUnlimited() ? 0 : (1000000000L / ((long)ups * getFactor()));
+    }
+    
+    /**
+     * Get the next warp, after Maximum is Normal again
+     * @return TimeWarp
+     */
+    public TimeWarp next()
+    {
+        return values()[(ordinal() + 1) % values().length];
+    }
+    
+    /**
+     * Get the description to display
+     * @return The factor followed by x, or max
+     */
+    public String getDesc()
+    {
+        return isUnlimited() ? "max" : (getFactor() + "x");
+    }
+}
\ No newline at end of file